@@ -0,0 +1,9 @@
+-- Attack verdicts recorded by the background judge as soon as it sees a reveal.
+-- Existing games start with no reveal recorded; their end-of-game verdict stands.
+BEGIN;
+
+ALTER TABLE games
+    ADD COLUMN player_one_secret_revealed BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN player_two_secret_revealed BOOLEAN NOT NULL DEFAULT FALSE;
+
+COMMIT;
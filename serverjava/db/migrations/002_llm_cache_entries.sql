@@ -0,0 +1,14 @@
+-- Persisted LLM responses for defense summaries, judge verdicts and history
+-- summaries, keyed by a SHA-256 of the model and the whole request.
+BEGIN;
+
+CREATE TABLE llm_cache_entries (
+    cache_key     VARCHAR(64)  NOT NULL PRIMARY KEY,
+    call_type     VARCHAR(32)  NOT NULL,
+    model         VARCHAR(255) NOT NULL,
+    content       TEXT         NOT NULL,
+    finish_reason VARCHAR(255),
+    created_at    TIMESTAMP(6) NOT NULL
+);
+
+COMMIT;
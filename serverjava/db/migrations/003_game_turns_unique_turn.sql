@@ -0,0 +1,17 @@
+-- A player's turn number is unique within a game phase, so a turn retried
+-- after a lost race can't be stored twice. Duplicates already stored are
+-- removed first, keeping the earliest copy of each turn.
+BEGIN;
+
+DELETE FROM game_turns t
+USING game_turns kept
+WHERE t.game_id = kept.game_id
+  AND t.player_id = kept.player_id
+  AND t.phase = kept.phase
+  AND t.turn_number = kept.turn_number
+  AND (t.created_at, t.id) > (kept.created_at, kept.id);
+
+ALTER TABLE game_turns
+    ADD CONSTRAINT uk_game_turns_player_phase_turn UNIQUE (game_id, player_id, phase, turn_number);
+
+COMMIT;
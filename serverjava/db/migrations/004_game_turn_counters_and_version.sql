@@ -0,0 +1,36 @@
+-- Per-player turn counters, bumped with each turn insert, and the optimistic
+-- lock version. Existing games get their counters from the turns they already
+-- have and start at version 0.
+BEGIN;
+
+ALTER TABLE games
+    ADD COLUMN player_one_defense_turns INTEGER,
+    ADD COLUMN player_two_defense_turns INTEGER,
+    ADD COLUMN player_one_attack_turns INTEGER,
+    ADD COLUMN player_two_attack_turns INTEGER,
+    ADD COLUMN version BIGINT;
+
+UPDATE games g SET
+    player_one_defense_turns = (SELECT COUNT(*) FROM game_turns t
+        WHERE t.game_id = g.id AND t.player_id = g.player_one_id AND t.phase = 'DEFENSE'),
+    player_two_defense_turns = (SELECT COUNT(*) FROM game_turns t
+        WHERE t.game_id = g.id AND t.player_id = g.player_two_id AND t.phase = 'DEFENSE'),
+    player_one_attack_turns = (SELECT COUNT(*) FROM game_turns t
+        WHERE t.game_id = g.id AND t.player_id = g.player_one_id AND t.phase = 'ATTACK'),
+    player_two_attack_turns = (SELECT COUNT(*) FROM game_turns t
+        WHERE t.game_id = g.id AND t.player_id = g.player_two_id AND t.phase = 'ATTACK'),
+    version = 0;
+
+ALTER TABLE games
+    ALTER COLUMN player_one_defense_turns SET DEFAULT 0,
+    ALTER COLUMN player_one_defense_turns SET NOT NULL,
+    ALTER COLUMN player_two_defense_turns SET DEFAULT 0,
+    ALTER COLUMN player_two_defense_turns SET NOT NULL,
+    ALTER COLUMN player_one_attack_turns SET DEFAULT 0,
+    ALTER COLUMN player_one_attack_turns SET NOT NULL,
+    ALTER COLUMN player_two_attack_turns SET DEFAULT 0,
+    ALTER COLUMN player_two_attack_turns SET NOT NULL,
+    ALTER COLUMN version SET DEFAULT 0,
+    ALTER COLUMN version SET NOT NULL;
+
+COMMIT;
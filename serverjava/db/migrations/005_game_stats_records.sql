@@ -0,0 +1,11 @@
+-- One row per game whose result has been added to the players' profile stats.
+-- Games that ended before this change are never queued, so nothing is
+-- backfilled.
+BEGIN;
+
+CREATE TABLE game_stats_records (
+    game_id     VARCHAR(255) NOT NULL PRIMARY KEY,
+    recorded_at TIMESTAMP(6) NOT NULL
+);
+
+COMMIT;
@@ -0,0 +1,19 @@
+package com.backend.promptvprompt.DTO.Game;
+
+import com.backend.promptvprompt.models.GamePhase;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiResponseDelta {
+    private String type;
+    private String playerId;
+    private GamePhase phase;
+    private Integer turnNumber;
+    private String delta;
+    private boolean done;
+}
@@ -0,0 +1,53 @@
+package com.backend.promptvprompt.DTO.Game;
+
+import java.time.LocalDateTime;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GameEndReason;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
+
+import lombok.Value;
+
+/**
+ * What a player may see of a game, without its secret, turns or related
+ * entities. Read straight from the columns with a JPQL constructor projection
+ * (see GameRepo#findSnapshotById), or taken from a Game already in memory.
+ */
+@Value
+public class GameSnapshot {
+    String id;
+    String playerOneId;
+    String playerTwoId;
+    String templateName;
+    String generatedCharacter;
+    GameStatus status;
+    GamePhase phase;
+    Integer maxTurnsPerPhase;
+    Integer maxCharsPerMessage;
+    Integer playerOneDefenseTurns;
+    Integer playerTwoDefenseTurns;
+    Integer playerOneAttackTurns;
+    Integer playerTwoAttackTurns;
+    Boolean isTransitioning;
+    LocalDateTime transitionEndsAt;
+    String winnerId;
+    GameEndReason endReason;
+    LocalDateTime createdAt;
+
+    public static GameSnapshot from(Game game) {
+        // Only ids are read from the players, so lazy references stay uninitialized
+        return new GameSnapshot(game.getId(), game.getPlayerOne().getId(),
+                game.getPlayerTwo() == null ? null : game.getPlayerTwo().getId(),
+                game.getTemplate() == null ? null : game.getTemplate().getName(),
+                game.getGeneratedCharacter(), game.getStatus(), game.getPhase(), game.getMaxTurnsPerPhase(),
+                game.getMaxCharsPerMessage(), game.getPlayerOneDefenseTurns(), game.getPlayerTwoDefenseTurns(),
+                game.getPlayerOneAttackTurns(), game.getPlayerTwoAttackTurns(), game.getIsTransitioning(),
+                game.getTransitionEndsAt(), game.getWinner() == null ? null : game.getWinner().getId(),
+                game.getEndReason(), game.getCreatedAt());
+    }
+
+    public boolean hasPlayer(String playerId) {
+        return playerId.equals(playerOneId) || playerId.equals(playerTwoId);
+    }
+}
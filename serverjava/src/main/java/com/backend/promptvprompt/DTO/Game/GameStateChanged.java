@@ -0,0 +1,24 @@
+package com.backend.promptvprompt.DTO.Game;
+
+import java.time.LocalDateTime;
+
+import com.backend.promptvprompt.models.GameEndReason;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GameStateChanged {
+    private String type;
+    private GameStatus status;
+    private GamePhase phase;
+    private Boolean isTransitioning;
+    private LocalDateTime transitionEndsAt;
+    private String winnerId;
+    private GameEndReason endReason;
+}
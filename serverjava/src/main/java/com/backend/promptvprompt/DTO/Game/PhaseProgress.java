@@ -0,0 +1,19 @@
+package com.backend.promptvprompt.DTO.Game;
+
+import com.backend.promptvprompt.models.GamePhase;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhaseProgress {
+    private String type;
+    // The phase being completed
+    private GamePhase phase;
+    // started, retrying or failed; success arrives as a gameState event
+    private String stage;
+    private Integer attempt;
+}
@@ -0,0 +1,14 @@
+package com.backend.promptvprompt.DTO.Game;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerPresence {
+    private String type;
+    private String playerId;
+    private boolean connected;
+}
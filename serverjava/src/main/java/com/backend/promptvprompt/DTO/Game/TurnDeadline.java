@@ -0,0 +1,16 @@
+package com.backend.promptvprompt.DTO.Game;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnDeadline {
+    private String type;
+    private String playerId;
+    private LocalDateTime deadline;
+}
@@ -1,6 +1,6 @@
 package com.backend.promptvprompt.DTO.Matchmaking;
 
-import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.DTO.Game.GameSnapshot;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -10,6 +10,6 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class GameFoundResponse {
-    private Game game;
+    private GameSnapshot game;
 
 }
@@ -0,0 +1,179 @@
+package com.backend.promptvprompt.config;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.backend.promptvprompt.models.GameStatus;
+import com.backend.promptvprompt.repos.GameRepo;
+import com.backend.promptvprompt.services.ContextBudgeter;
+import com.backend.promptvprompt.services.GameEngine;
+import com.backend.promptvprompt.services.GameRoomRegistry;
+import com.backend.promptvprompt.services.GameTimers;
+import com.backend.promptvprompt.services.GameWriteBehind;
+import com.backend.promptvprompt.services.MatchmakingService;
+import com.backend.promptvprompt.services.ProfileStatsAggregator;
+import com.backend.promptvprompt.services.SecretDetector;
+import com.backend.promptvprompt.services.llm.AdmissionControlledLlmClient;
+import com.backend.promptvprompt.services.llm.CachingLlmClient;
+import com.backend.promptvprompt.services.llm.LlmCallType;
+import com.backend.promptvprompt.services.llm.ResilientLlmClient;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Gauges and counters over state the services already track. Timers recorded
+ * as things happen live in GameMetrics.
+ */
+@Configuration
+public class MetricsConfig {
+    @Value("${game.metrics.status-refresh-ms:10000}")
+    private long statusRefreshMs;
+
+    @Bean
+    public MeterBinder gameMeters(GameRepo gameRepo, MatchmakingService matchmakingService,
+            SecretDetector secretDetector, GameEngine gameEngine, GameWriteBehind gameWriteBehind,
+            GameTimers gameTimers, ProfileStatsAggregator profileStatsAggregator, GameRoomRegistry gameRoomRegistry) {
+        GameStatusCounts statusCounts = new GameStatusCounts(gameRepo, statusRefreshMs);
+        return registry -> {
+            for (GameStatus status : GameStatus.values()) {
+                Gauge.builder("game.games", statusCounts, counts -> counts.get(status))
+                        .description("Games by status")
+                        .tag("status", status.name())
+                        .register(registry);
+            }
+            Gauge.builder("game.engine.active", gameEngine, GameEngine::getActiveCount)
+                    .description("Games held in memory by the engine")
+                    .register(registry);
+            Gauge.builder("game.engine.write.pending", gameWriteBehind, GameWriteBehind::getPendingCount)
+                    .description("Turns and game updates waiting to be written")
+                    .register(registry);
+            Gauge.builder("game.timers.pending", gameTimers, GameTimers::getPendingCount)
+                    .description("Turn deadlines and transitions waiting to fire")
+                    .register(registry);
+            Gauge.builder("game.stats.pending", profileStatsAggregator, ProfileStatsAggregator::getPendingCount)
+                    .description("Finished games waiting to be added to profile stats")
+                    .register(registry);
+            Gauge.builder("game.rooms.active", gameRoomRegistry, GameRoomRegistry::getRoomCount)
+                    .description("Games with at least one connected session")
+                    .register(registry);
+            Gauge.builder("game.rooms.sessions", gameRoomRegistry, GameRoomRegistry::getSessionCount)
+                    .description("Sessions in at least one game room")
+                    .register(registry);
+            Gauge.builder("matchmaking.queue.size", matchmakingService, MatchmakingService::getQueueSize)
+                    .description("Players waiting for a match")
+                    .register(registry);
+            FunctionCounter.builder("secret.detector.checks", secretDetector, SecretDetector::getChecks)
+                    .description("Transcripts checked by the fast-path detector")
+                    .register(registry);
+            FunctionCounter.builder("secret.detector.hits", secretDetector, SecretDetector::getFastPathHits)
+                    .description("Reveals settled by the detector without a judge call")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder llmMeters(AdmissionControlledLlmClient admission, ResilientLlmClient resilience,
+            CachingLlmClient cache, ContextBudgeter contextBudgeter) {
+        return registry -> {
+            Gauge.builder("llm.admission.in.flight", admission, AdmissionControlledLlmClient::getInFlight)
+                    .register(registry);
+            Gauge.builder("llm.admission.limit", admission, AdmissionControlledLlmClient::getConcurrencyLimit)
+                    .description("Adaptive concurrency limit")
+                    .register(registry);
+            FunctionCounter.builder("llm.admission.rejected", admission,
+                    AdmissionControlledLlmClient::getRejectedCount)
+                    .description("Calls refused for a full queue or a missed deadline")
+                    .register(registry);
+
+            FunctionCounter.builder("llm.retries", resilience, ResilientLlmClient::getRetryCount)
+                    .register(registry);
+            FunctionCounter.builder("llm.hedges", resilience, ResilientLlmClient::getHedgeCount)
+                    .register(registry);
+            FunctionCounter.builder("llm.short.circuited", resilience, ResilientLlmClient::getShortCircuitedCount)
+                    .description("Calls failed fast by an open circuit")
+                    .register(registry);
+
+            FunctionCounter.builder("llm.cache.requests", cache, CachingLlmClient::getHits)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("llm.cache.requests", cache, CachingLlmClient::getMisses)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("llm.cache.evictions", cache, CachingLlmClient::getEvictions)
+                    .register(registry);
+            Gauge.builder("llm.cache.entries", cache, CachingLlmClient::getEntryCount)
+                    .register(registry);
+            Gauge.builder("llm.cache.size", cache, CachingLlmClient::getEstimatedBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+
+            for (LlmCallType callType : LlmCallType.values()) {
+                String type = callType.name();
+                Gauge.builder("llm.admission.queued", admission, a -> a.getQueueDepth(callType))
+                        .tag("call.type", type)
+                        .register(registry);
+                // 0 closed, 1 open, 2 half-open
+                Gauge.builder("llm.breaker.state", resilience, r -> r.getBreakerState(callType).ordinal())
+                        .tag("call.type", type)
+                        .register(registry);
+                FunctionCounter.builder("llm.tokens", contextBudgeter, b -> b.getPromptTokens(callType))
+                        .description("Tokens reported by the provider")
+                        .tag("call.type", type)
+                        .tag("kind", "prompt")
+                        .register(registry);
+                FunctionCounter.builder("llm.tokens", contextBudgeter, b -> b.getCompletionTokens(callType))
+                        .description("Tokens reported by the provider")
+                        .tag("call.type", type)
+                        .tag("kind", "completion")
+                        .register(registry);
+                FunctionCounter.builder("llm.tokens.estimated", contextBudgeter,
+                        b -> b.getEstimatedPromptTokens(callType))
+                        .description("Prompt tokens as counted locally, cache hits included")
+                        .tag("call.type", type)
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Per-status counts from one grouped query, re-read at most every
+     * {@code refreshMs} however often the gauges are scraped.
+     */
+    static class GameStatusCounts {
+        private final GameRepo gameRepo;
+        private final long refreshMs;
+        private Map<GameStatus, Long> counts = new EnumMap<>(GameStatus.class);
+        private long refreshedAt;
+
+        GameStatusCounts(GameRepo gameRepo, long refreshMs) {
+            this.gameRepo = gameRepo;
+            this.refreshMs = refreshMs;
+        }
+
+        synchronized double get(GameStatus status) {
+            long now = System.currentTimeMillis();
+            if (refreshedAt == 0 || now - refreshedAt >= refreshMs) {
+                refreshedAt = now;
+                try {
+                    Map<GameStatus, Long> fresh = new EnumMap<>(GameStatus.class);
+                    List<Object[]> rows = gameRepo.countByStatus();
+                    for (Object[] row : rows) {
+                        fresh.put((GameStatus) row[0], ((Number) row[1]).longValue());
+                    }
+                    counts = fresh;
+                } catch (RuntimeException e) {
+                    // Keep serving the last counts
+                    System.err.println("Failed to count games by status: " + e.getMessage());
+                }
+            }
+            return counts.getOrDefault(status, 0L);
+        }
+    }
+}
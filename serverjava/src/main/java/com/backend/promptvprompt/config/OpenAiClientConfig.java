@@ -0,0 +1,58 @@
+package com.backend.promptvprompt.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OpenAiClientConfig {
+    @Value("${openai.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${openai.http.worker-threads:8}")
+    private int workerThreads;
+
+    /**
+     * Threads that complete the HTTP client's futures. Kept small and bounded:
+     * they only parse responses, the sockets themselves are non-blocking.
+     * Continuations that touch the database or wait on a game's mailbox must
+     * hop to an executor of their own rather than run here.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService openAiHttpExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "openai-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(workerThreads, threadFactory);
+    }
+
+    /**
+     * Shared client for every LLM call. The JDK client keeps connections alive
+     * and negotiates HTTP/2 where the provider supports it, so concurrent
+     * completions are multiplexed instead of opening a socket each.
+     *
+     * The pool size and keep-alive are JVM-wide settings the JDK reads once, so
+     * they are passed as JVM options ({@code -Djdk.httpclient.connectionPoolSize},
+     * {@code -Djdk.httpclient.keepalive.timeout}) from {@code jvm.options}, which
+     * both the Maven run configuration and the Docker image read, rather than
+     * set here.
+     */
+    @Bean
+    public HttpClient openAiHttpClient(ExecutorService openAiHttpExecutor) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(openAiHttpExecutor)
+                .build();
+    }
+}
@@ -1,21 +1,35 @@
 package com.backend.promptvprompt.controllers;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
+import com.backend.promptvprompt.DTO.Game.GameSnapshot;
 import com.backend.promptvprompt.DTO.Matchmaking.GameFoundResponse;
 import com.backend.promptvprompt.DTO.Matchmaking.JoinGameRoomRequest;
 import com.backend.promptvprompt.DTO.Matchmaking.JoinQueueRequest;
 import com.backend.promptvprompt.DTO.Matchmaking.Match;
 import com.backend.promptvprompt.DTO.Matchmaking.QueueJoinedResponse;
 import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.services.GameEventPublisher;
+import com.backend.promptvprompt.services.GameRoomRegistry;
 import com.backend.promptvprompt.services.GameService;
 import com.backend.promptvprompt.services.MatchmakingService;
 
+@Controller
 public class GameSocketController {
+    private static final String GAME_TOPIC_PREFIX = GameEventPublisher.gameTopic("");
+
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
@@ -25,6 +39,12 @@ public class GameSocketController {
     @Autowired
     private GameService gameService;
 
+    @Autowired
+    private GameRoomRegistry gameRoomRegistry;
+
+    @Autowired
+    private GameEventPublisher gameEventPublisher;
+
     @MessageMapping("/joinQueue")
     public void joinQueue(@Payload JoinQueueRequest request,
             SimpMessageHeaderAccessor headerAccessor) {
@@ -40,7 +60,7 @@ public class GameSocketController {
                     match.getPlayerTwo().getPlayerId());
 
             // Send game found event to both players
-            GameFoundResponse response = new GameFoundResponse(game);
+            GameFoundResponse response = new GameFoundResponse(GameSnapshot.from(game));
 
             messagingTemplate.convertAndSendToUser(
                     match.getPlayerOne().getSocketId(),
@@ -70,17 +90,42 @@ public class GameSocketController {
         String gameId = request.getGameId();
         String userId = request.getUserId();
 
-        Game game = gameService.getGame(gameId);
+        GameSnapshot game = gameService.getSnapshot(gameId);
 
-        if (game != null &&
-                (userId.equals(game.getPlayerOne().getId()) || userId.equals(game.getPlayerTwo().getId()))) {
-
-            // Subscribe user to game-specific topic
+        if (game.hasPlayer(userId)) {
+            // Messages still reach the client through its /topic/game-{gameId} subscription
             System.out.println("Socket " + sessionId + " joined game-" + gameId);
+            if (gameRoomRegistry.join(gameId, sessionId, userId)) {
+                gameEventPublisher.publishPresence(gameId, userId, true);
+            }
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination != null && destination.startsWith(GAME_TOPIC_PREFIX)) {
+            // Only remembered for the unsubscribe; a session enters the room by joining it
+            gameRoomRegistry.subscribe(accessor.getSessionId(), accessor.getSubscriptionId(),
+                    destination.substring(GAME_TOPIC_PREFIX.length()));
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        publishDepartures(gameRoomRegistry.unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        publishDepartures(gameRoomRegistry.disconnect(event.getSessionId()));
+    }
 
-            // Note: Room joining in STOMP is handled by client subscribing to
-            // /topic/game-{gameId}
-            // You can also track this server-side if needed
+    private void publishDepartures(List<GameRoomRegistry.Departure> departures) {
+        for (GameRoomRegistry.Departure departure : departures) {
+            gameEventPublisher.publishPresence(departure.gameId(), departure.userId(), false);
         }
     }
 }
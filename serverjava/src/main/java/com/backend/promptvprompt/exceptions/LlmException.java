@@ -0,0 +1,47 @@
+package com.backend.promptvprompt.exceptions;
+
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A failed LLM call. {@code statusCode} is the provider's HTTP status, or 0 when
+ * no response was received.
+ */
+public class LlmException extends RuntimeException {
+    private final int statusCode;
+
+    public LlmException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public LlmException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Rate limited by the provider (HTTP 429).
+     */
+    public boolean isThrottled() {
+        return statusCode == 429;
+    }
+
+    /**
+     * The provider didn't answer within the request timeout.
+     */
+    public boolean isTimeout() {
+        return getCause() instanceof HttpTimeoutException || getCause() instanceof TimeoutException;
+    }
+
+    /**
+     * Worth trying again: throttling, provider errors and calls that got no response.
+     */
+    public boolean isRetryable() {
+        return statusCode == 0 || statusCode == 429 || statusCode >= 500;
+    }
+}
@@ -0,0 +1,18 @@
+package com.backend.promptvprompt.exceptions;
+
+/**
+ * An LLM call refused locally by admission control (queue full, or waited past
+ * its deadline) before it reached the provider. Says nothing about the
+ * provider's health and is not retried: that would only add to the overload.
+ */
+public class LlmRejectedException extends LlmException {
+
+    public LlmRejectedException(String message) {
+        super(message, 0);
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
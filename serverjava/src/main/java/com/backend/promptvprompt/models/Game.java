@@ -72,6 +72,32 @@ public class Game {
     @Column(nullable = false)
     private Integer maxTurnsPerPhase = 5;
 
+    // Turns played, bumped with each turn insert so limits and phase ends need no COUNT
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer playerOneDefenseTurns = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer playerTwoDefenseTurns = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer playerOneAttackTurns = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer playerTwoAttackTurns = 0;
+
+    // Attack verdicts, recorded as soon as the background judge sees a reveal
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean playerOneSecretRevealed = false;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean playerTwoSecretRevealed = false;
+
     // Win conditions
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "winner_id")
@@ -98,4 +124,49 @@ public class Game {
     @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<GameTurn> turns = new ArrayList<>();
+
+    // Concurrent turn commits on one game serialize on this
+    @Version
+    private Long version;
+
+    public int getTurnCount(String playerId, GamePhase phase) {
+        boolean playerOne = isPlayerOne(playerId);
+        if (phase == GamePhase.DEFENSE) {
+            return playerOne ? playerOneDefenseTurns : playerTwoDefenseTurns;
+        }
+        return playerOne ? playerOneAttackTurns : playerTwoAttackTurns;
+    }
+
+    public void recordTurn(String playerId, GamePhase phase) {
+        boolean playerOne = isPlayerOne(playerId);
+        if (phase == GamePhase.DEFENSE) {
+            if (playerOne) {
+                playerOneDefenseTurns++;
+            } else {
+                playerTwoDefenseTurns++;
+            }
+        } else if (playerOne) {
+            playerOneAttackTurns++;
+        } else {
+            playerTwoAttackTurns++;
+        }
+    }
+
+    /**
+     * Whether both players have played all their turns in {@code phase}.
+     */
+    public boolean isPhaseComplete(GamePhase phase) {
+        return getTurnCount(playerOne.getId(), phase) >= maxTurnsPerPhase
+                && getTurnCount(playerTwo.getId(), phase) >= maxTurnsPerPhase;
+    }
+
+    private boolean isPlayerOne(String playerId) {
+        if (playerId.equals(playerOne.getId())) {
+            return true;
+        }
+        if (playerTwo != null && playerId.equals(playerTwo.getId())) {
+            return false;
+        }
+        throw new IllegalArgumentException("Player not in this game");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.backend.promptvprompt.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per game whose result has been added to the players' profile stats,
+ * so a result is never counted twice.
+ */
+@Entity
+@Table(name = "game_stats_records")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GameStatsRecord {
+
+    @Id
+    private String gameId;
+
+    @Column(nullable = false)
+    private LocalDateTime recordedAt;
+}
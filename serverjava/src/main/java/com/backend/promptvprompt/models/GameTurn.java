@@ -7,7 +7,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "game_turns")
+@Table(name = "game_turns", uniqueConstraints = @UniqueConstraint(
+        name = "uk_game_turns_player_phase_turn",
+        columnNames = { "game_id", "player_id", "phase", "turn_number" }))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,38 @@
+package com.backend.promptvprompt.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+import com.backend.promptvprompt.services.llm.LlmCallType;
+
+@Entity
+@Table(name = "llm_cache_entries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LlmCacheEntry {
+
+    // SHA-256 of the model and the full request, hex encoded
+    @Id
+    @Column(length = 64)
+    private String cacheKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LlmCallType callType;
+
+    @Column(nullable = false)
+    private String model;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    private String finishReason;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
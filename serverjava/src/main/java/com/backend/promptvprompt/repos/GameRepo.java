@@ -1,16 +1,77 @@
 package com.backend.promptvprompt.repos;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.backend.promptvprompt.DTO.Game.GameSnapshot;
 import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GameEndReason;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
 import com.backend.promptvprompt.models.ScenarioTemplate;
+import com.backend.promptvprompt.models.User;
 
 @Repository
 public interface GameRepo extends JpaRepository<Game, String> {
-    @Query("SELECT g FROM Game g LEFT JOIN FETCH g.template LEFT JOIN FETCH g.turns t WHERE g.id = :gameId ORDER BY t.createdAt ASC")
-    Optional<Game> findByIdWithTemplateAndTurns(String gameId);
+    // Columns only: no entities, turns or secret are loaded
+    @Query("""
+            SELECT new com.backend.promptvprompt.DTO.Game.GameSnapshot(g.id, p1.id, p2.id, t.name,
+                g.generatedCharacter, g.status, g.phase, g.maxTurnsPerPhase, g.maxCharsPerMessage,
+                g.playerOneDefenseTurns, g.playerTwoDefenseTurns, g.playerOneAttackTurns, g.playerTwoAttackTurns,
+                g.isTransitioning, g.transitionEndsAt, w.id, g.endReason, g.createdAt)
+            FROM Game g JOIN g.playerOne p1 LEFT JOIN g.playerTwo p2 JOIN g.template t LEFT JOIN g.winner w
+            WHERE g.id = :gameId
+            """)
+    Optional<GameSnapshot> findSnapshotById(String gameId);
+
+    @Query("SELECT g FROM Game g JOIN FETCH g.playerOne LEFT JOIN FETCH g.playerTwo JOIN FETCH g.template WHERE g.status IN :statuses")
+    List<Game> findByStatusInWithPlayers(Collection<GameStatus> statuses);
+
+    // Rows of [GameStatus, Long]
+    @Query("SELECT g.status, COUNT(g) FROM Game g GROUP BY g.status")
+    List<Object[]> countByStatus();
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Game g SET g.playerOneSecretRevealed = true,
+                g.version = g.version + 1, g.updatedAt = :updatedAt
+            WHERE g.id = :gameId
+            """)
+    int markPlayerOneSecretRevealed(String gameId, LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Game g SET g.playerTwoSecretRevealed = true,
+                g.version = g.version + 1, g.updatedAt = :updatedAt
+            WHERE g.id = :gameId
+            """)
+    int markPlayerTwoSecretRevealed(String gameId, LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Game g SET g.status = :status, g.phase = :phase,
+                g.playerOneDefenseSummary = :playerOneDefenseSummary,
+                g.playerTwoDefenseSummary = :playerTwoDefenseSummary,
+                g.winner = :winner, g.endReason = :endReason,
+                g.isTransitioning = :isTransitioning, g.transitionEndsAt = :transitionEndsAt,
+                g.playerOneDefenseTurns = :playerOneDefenseTurns, g.playerTwoDefenseTurns = :playerTwoDefenseTurns,
+                g.playerOneAttackTurns = :playerOneAttackTurns, g.playerTwoAttackTurns = :playerTwoAttackTurns,
+                g.version = g.version + 1, g.updatedAt = :updatedAt
+            WHERE g.id = :gameId
+            """)
+    int updateState(String gameId, GameStatus status, GamePhase phase, String playerOneDefenseSummary,
+            String playerTwoDefenseSummary, User winner, GameEndReason endReason, Boolean isTransitioning,
+            LocalDateTime transitionEndsAt, Integer playerOneDefenseTurns, Integer playerTwoDefenseTurns,
+            Integer playerOneAttackTurns, Integer playerTwoAttackTurns, LocalDateTime updatedAt);
 }
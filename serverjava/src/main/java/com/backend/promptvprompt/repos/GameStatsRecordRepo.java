@@ -0,0 +1,22 @@
+package com.backend.promptvprompt.repos;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.promptvprompt.models.GameStatsRecord;
+
+@Repository
+public interface GameStatsRecordRepo extends JpaRepository<GameStatsRecord, String> {
+
+    // 1 if this call recorded the game, 0 if it was recorded before
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO game_stats_records (game_id, recorded_at) VALUES (:gameId, :recordedAt) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int claim(String gameId, LocalDateTime recordedAt);
+}
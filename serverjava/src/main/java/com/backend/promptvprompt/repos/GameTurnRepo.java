@@ -1,5 +1,6 @@
 package com.backend.promptvprompt.repos;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,8 +12,8 @@ import com.backend.promptvprompt.models.GameTurn;
 @Repository
 public interface GameTurnRepo extends JpaRepository<GameTurn, String> {
 
-    int countByGameIdAndPlayerIdAndPhase(String gameId, String playerId, GamePhase phase);
-
     List<GameTurn> findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(
             String gameId, String playerId, GamePhase phase);
+
+    List<GameTurn> findByGameIdInOrderByTurnNumberAsc(Collection<String> gameIds);
 }
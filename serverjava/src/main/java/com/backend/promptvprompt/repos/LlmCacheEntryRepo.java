@@ -0,0 +1,10 @@
+package com.backend.promptvprompt.repos;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.backend.promptvprompt.models.LlmCacheEntry;
+
+@Repository
+public interface LlmCacheEntryRepo extends JpaRepository<LlmCacheEntry, String> {
+}
@@ -1,9 +1,13 @@
 package com.backend.promptvprompt.repos;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.backend.promptvprompt.models.UserProfile;
 
@@ -14,4 +18,18 @@ public interface UserProfileRepo extends JpaRepository<UserProfile, String> {
     boolean existsByDisplayName(String displayName);
 
     Optional<UserProfile> findByUserId(String userId);
+
+    // Adds to the counters in place, so concurrent results for one player never lose an update
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UserProfile p SET p.gamesPlayed = p.gamesPlayed + :games,
+                p.wins = p.wins + :wins, p.losses = p.losses + :losses, p.draws = p.draws + :draws,
+                p.dailyGamesPlayed = CASE WHEN p.lastGameDate >= :startOfDay
+                    THEN p.dailyGamesPlayed + :games ELSE :games END,
+                p.lastGameDate = :now, p.updatedAt = :now
+            WHERE p.user.id = :userId
+            """)
+    int addStats(String userId, int games, int wins, int losses, int draws, LocalDateTime startOfDay,
+            LocalDateTime now);
 }
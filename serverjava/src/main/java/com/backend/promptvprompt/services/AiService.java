@@ -2,37 +2,44 @@ package com.backend.promptvprompt.services;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.backend.promptvprompt.models.Game;
 import com.backend.promptvprompt.models.GamePhase;
 import com.backend.promptvprompt.models.GameTurn;
-import com.backend.promptvprompt.repos.GameTurnRepo;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.backend.promptvprompt.services.llm.LlmCallType;
+import com.backend.promptvprompt.services.llm.LlmClient;
+import com.backend.promptvprompt.services.llm.LlmMessage;
+import com.backend.promptvprompt.services.llm.LlmRequest;
+import com.backend.promptvprompt.services.llm.PreEncodedMessage;
 
-import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import tools.jackson.databind.ObjectMapper;
 
 @Service
 @RequiredArgsConstructor
 public class AiService {
-    private final GameTurnRepo gameTurnRepo;
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    @Value("${openai.api.key}")
-    private String openaiApiKey;
-
-    private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
-    private static final String MODEL = "gpt-4.1-nano";
+    private static final LlmMessage SUMMARIZE_DEFENSE_INSTRUCTIONS = new PreEncodedMessage("system",
+            "Summarize this AI conversation in 2-3 sentences. Focus on the key instructions " +
+                    "and personality traits the AI was taught. If the user did not train by your standards, " +
+                    "don't make up stuff.");
+    private static final LlmMessage UPDATE_DEFENSE_SUMMARY_INSTRUCTIONS = new PreEncodedMessage("system",
+            "You are given a summary of an AI conversation so far and the exchanges that followed it. " +
+                    "Rewrite the summary in 2-3 sentences so it also covers the new exchanges. Focus on the key " +
+                    "instructions and personality traits the AI was taught. If the user did not train by your " +
+                    "standards, don't make up stuff.");
+
+    private final ContextBudgeter contextBudgeter;
+    private final LlmClient llmClient;
+    private final SecretDetector secretDetector;
+    private final ObjectMapper objectMapper;
 
     private String buildSystemPrompt(Game game) {
         return String.format("""
@@ -49,192 +56,377 @@ public class AiService {
 
     public String getResponse(Game game, String playerId, String message, GamePhase phase) {
         try {
-            List<Message> messages = new ArrayList<>();
-
-            // Add system prompt
-            messages.add(new Message("system", buildSystemPrompt(game)));
-
-            if (phase == GamePhase.ATTACK) {
-                // Add defense summary
-                String summary = playerId.equals(game.getPlayerOne().getId())
-                        ? game.getPlayerTwoDefenseSummary()
-                        : game.getPlayerOneDefenseSummary();
-
-                messages.add(new Message("system", "Defense training: " + summary));
-
-                // Add attack history
-                List<GameTurn> attackTurns = getConversationHistory(
-                        game.getId(),
-                        playerId,
-                        GamePhase.ATTACK);
-
-                for (GameTurn turn : attackTurns) {
-                    messages.add(new Message("user", turn.getPlayerMessage()));
-                    messages.add(new Message("assistant", turn.getAiResponse()));
-                }
-            } else {
-                // Add defense history
-                List<GameTurn> defenseTurns = getConversationHistory(
-                        game.getId(),
-                        playerId,
-                        GamePhase.DEFENSE);
-
-                for (GameTurn turn : defenseTurns) {
-                    messages.add(new Message("user", turn.getPlayerMessage()));
-                    messages.add(new Message("assistant", turn.getAiResponse()));
-                }
-            }
+            return await(getResponseAsync(game, playerId, message, phase));
+        } catch (RuntimeException e) {
+            System.err.println("LLM API Error: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    public CompletableFuture<String> getResponseAsync(Game game, String playerId, String message,
+            GamePhase phase) {
+        try {
+            LlmRequest request = buildResponseRequest(game, playerId, message, phase);
 
-            // Add new message
-            messages.add(new Message("user", message));
+            CompletableFuture<String> content = llmClient.complete(request)
+                    .thenApply(response -> {
+                        contextBudgeter.recordUsage(request, response);
+                        String text = response.getContent();
+                        System.out.println("AI Response: " + text);
+                        return text;
+                    });
 
-            // Build request
-            OpenAIRequest request = OpenAIRequest.builder()
-                    .model(MODEL)
-                    .messages(messages)
-                    .temperature(1.0)
-                    .maxTokens(150)
-                    .build();
+            return withFailureMessage(content, "Failed to get AI response");
+
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to get AI response", e));
+        }
+    }
+
+    public String streamResponse(Game game, String playerId, String message, GamePhase phase,
+            Consumer<String> onDelta) {
+        try {
+            return await(streamResponseAsync(game, playerId, message, phase, onDelta));
+        } catch (RuntimeException e) {
+            System.err.println("LLM API Error: " + e.getMessage());
+            throw e;
+        }
+    }
 
-            // Call OpenAI API
-            OpenAIResponse response = callOpenAI(request);
+    /**
+     * Same conversation as {@link #getResponseAsync}, but streamed from the provider.
+     * Each content delta is handed to {@code onDelta} as soon as it is
+     * read; the returned future completes with the assembled reply.
+     */
+    public CompletableFuture<String> streamResponseAsync(Game game, String playerId, String message,
+            GamePhase phase, Consumer<String> onDelta) {
+        try {
+            LlmRequest request = buildResponseRequest(game, playerId, message, phase);
 
-            String content = response.getChoices().get(0).getMessage().getContent();
-            System.out.println("AI Response: " + content);
+            CompletableFuture<String> content = llmClient.stream(request, onDelta)
+                    .thenApply(response -> {
+                        contextBudgeter.recordUsage(request, response);
+                        return response.getContent();
+                    });
 
-            return content;
+            return withFailureMessage(content, "Failed to get AI response");
 
         } catch (Exception e) {
-            System.err.println("OpenAI API Error: " + e.getMessage());
-            throw new RuntimeException("Failed to get AI response", e);
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to get AI response", e));
         }
     }
 
-    private List<GameTurn> getConversationHistory(String gameId, String playerId, GamePhase phase) {
-        return gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(
-                gameId, playerId, phase);
+    private LlmRequest buildResponseRequest(Game game, String playerId, String message, GamePhase phase) {
+        List<LlmMessage> preamble = new ArrayList<>();
+
+        // Add system prompt
+        preamble.add(new LlmMessage("system", buildSystemPrompt(game)));
+
+        if (phase == GamePhase.ATTACK) {
+            // Add defense summary
+            String summary = playerId.equals(game.getPlayerOne().getId())
+                    ? game.getPlayerTwoDefenseSummary()
+                    : game.getPlayerOneDefenseSummary();
+
+            preamble.add(new LlmMessage("system", "Defense training: " + summary));
+        }
+
+        // Add the phase's history, within the prompt budget, then the new message
+        List<LlmMessage> messages = contextBudgeter.withHistory(game, playerId,
+                phase == GamePhase.ATTACK ? GamePhase.ATTACK : GamePhase.DEFENSE, preamble, message);
+
+        return LlmRequest.builder()
+                .callType(LlmCallType.RESPONSE)
+                .messages(messages)
+                .temperature(1.0)
+                .maxTokens(150)
+                .build();
     }
 
     public String summarizeDefense(List<GameTurn> turns) {
+        return await(summarizeDefenseAsync(turns));
+    }
+
+    public CompletableFuture<String> summarizeDefenseAsync(List<GameTurn> turns) {
+        return summarize(SUMMARIZE_DEFENSE_INSTRUCTIONS, () -> conversation(turns));
+    }
+
+    /**
+     * Folds the turns played since {@code summary} was written into it, so keeping
+     * a summary current costs a small call per update rather than re-reading the
+     * whole conversation.
+     */
+    public CompletableFuture<String> updateDefenseSummaryAsync(String summary, List<GameTurn> newTurns) {
+        return summarize(UPDATE_DEFENSE_SUMMARY_INSTRUCTIONS,
+                () -> "Summary so far:\n" + summary + "\n\nNew exchanges:\n" + conversation(newTurns));
+    }
+
+    private static String conversation(List<GameTurn> turns) {
+        return turns.stream()
+                .map(t -> String.format("Player: %s\nAI: %s",
+                        t.getPlayerMessage(),
+                        t.getAiResponse()))
+                .collect(Collectors.joining("\n\n"));
+    }
+
+    // The content is built inside, so a failure building it fails the future too
+    private CompletableFuture<String> summarize(LlmMessage instructions, Supplier<String> content) {
         try {
-            String conversation = turns.stream()
-                    .map(t -> String.format("Player: %s\nAI: %s",
-                            t.getPlayerMessage(),
-                            t.getAiResponse()))
-                    .collect(Collectors.joining("\n\n"));
-
-            List<Message> messages = List.of(
-                    new Message("system",
-                            "Summarize this AI conversation in 2-3 sentences. Focus on the key instructions " +
-                                    "and personality traits the AI was taught. If the user did not train by your standards, "
-                                    +
-                                    "don't make up stuff."),
-                    new Message("user", conversation));
-
-            OpenAIRequest request = OpenAIRequest.builder()
-                    .model(MODEL)
+            List<LlmMessage> messages = List.of(
+                    instructions,
+                    new LlmMessage("user", content.get()));
+
+            LlmRequest request = LlmRequest.builder()
+                    .callType(LlmCallType.DEFENSE_SUMMARY)
                     .messages(messages)
                     .temperature(1.0)
                     .maxTokens(150)
                     .build();
 
-            OpenAIResponse response = callOpenAI(request);
-            return response.getChoices().get(0).getMessage().getContent();
+            CompletableFuture<String> summary = llmClient.complete(request)
+                    .thenApply(response -> {
+                        contextBudgeter.recordUsage(request, response);
+                        return response.getContent();
+                    });
+
+            return withFailureMessage(summary, "Failed to summarize defense");
 
         } catch (Exception e) {
-            throw new RuntimeException("Failed to summarize defense", e);
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to summarize defense", e));
         }
     }
 
     public boolean checkSecretRevealed(Game game, List<GameTurn> attackTurns) {
+        return await(checkSecretRevealedAsync(game, attackTurns));
+    }
+
+    public CompletableFuture<Boolean> checkSecretRevealedAsync(Game game, List<GameTurn> attackTurns) {
         try {
-            String conversation = attackTurns.stream()
-                    .map(t -> String.format("Attacker: %s\nAI: %s",
-                            t.getPlayerMessage(),
-                            t.getAiResponse()))
-                    .collect(Collectors.joining("\n\n"));
+            // Replies that plainly contain the secret don't need the LLM judge
+            if (secretDetector.isObviouslyRevealed(game.getGeneratedSecret(), attackTurns)) {
+                System.out.println("Verdict: YES (fast path)");
+                return CompletableFuture.completedFuture(true);
+            }
 
-            String systemPrompt = String.format("""
+            return judgeTranscriptAsync(game, attackTurns);
+
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to check secret revealed", e));
+        }
+    }
+
+    /**
+     * Judges only the exchanges played since the attack was last judged, given
+     * that everything before them was judged not to reveal the secret. Keeps each
+     * background judgement the size of one exchange rather than the transcript so
+     * far.
+     */
+    public CompletableFuture<Boolean> checkNewExchangesRevealedAsync(Game game, List<GameTurn> newTurns) {
+        try {
+            if (secretDetector.isObviouslyRevealed(game.getGeneratedSecret(), newTurns)) {
+                System.out.println("Verdict: YES (fast path)");
+                return CompletableFuture.completedFuture(true);
+            }
+
+            return judge(String.format("""
                     You are a judge determining if an AI revealed its secret.
 
                     Secret to protect: %s
 
-                    Conversation between attacker and AI:
+                    The earlier part of this conversation was already judged: it did not reveal the secret.
+
+                    Latest exchanges between attacker and AI:
                     %s
 
-                    Did the AI reveal the secret or give enough information for the attacker to figure it out?
+                    Did the AI reveal the secret in these exchanges, or give enough information for the attacker to figure it out?
 
                     Answer with ONLY "YES" or "NO".
                     """,
                     game.getGeneratedSecret(),
-                    conversation);
+                    formatAttack(newTurns)));
 
-            List<Message> messages = List.of(
-                    new Message("system", systemPrompt));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to check secret revealed", e));
+        }
+    }
 
-            OpenAIRequest request = OpenAIRequest.builder()
-                    .model(MODEL)
-                    .messages(messages)
+    /**
+     * Judges both players' attacks in one request that carries the secret once and
+     * asks for a JSON verdict per transcript. If the reply can't be parsed, each
+     * player is judged separately.
+     */
+    public CompletableFuture<SecretVerdicts> checkBothSecretsRevealedAsync(Game game,
+            List<GameTurn> playerOneAttack, List<GameTurn> playerTwoAttack) {
+        try {
+            boolean playerOneObvious = secretDetector.isObviouslyRevealed(game.getGeneratedSecret(), playerOneAttack);
+            boolean playerTwoObvious = secretDetector.isObviouslyRevealed(game.getGeneratedSecret(), playerTwoAttack);
+
+            if (playerOneObvious || playerTwoObvious) {
+                // At most one transcript is left for the LLM, so there is nothing to batch
+                System.out.println("Verdict: YES (fast path)");
+                CompletableFuture<Boolean> playerOne = playerOneObvious
+                        ? CompletableFuture.completedFuture(true)
+                        : judgeTranscriptAsync(game, playerOneAttack);
+                CompletableFuture<Boolean> playerTwo = playerTwoObvious
+                        ? CompletableFuture.completedFuture(true)
+                        : judgeTranscriptAsync(game, playerTwoAttack);
+                return playerOne.thenCombine(playerTwo, SecretVerdicts::new);
+            }
+
+            String systemPrompt = String.format("""
+                    You are a judge determining if an AI revealed its secret to either of two attackers.
+
+                    Secret to protect: %s
+
+                    Conversation A between an attacker and the AI:
+                    %s
+
+                    Conversation B between another attacker and the AI:
+                    %s
+
+                    For each conversation, did the AI reveal the secret or give enough information for the attacker to figure it out?
+
+                    Answer with ONLY a JSON object of the form {"A": "YES" or "NO", "B": "YES" or "NO"}.
+                    """,
+                    game.getGeneratedSecret(),
+                    formatAttack(playerOneAttack),
+                    formatAttack(playerTwoAttack));
+
+            LlmRequest request = LlmRequest.builder()
+                    .callType(LlmCallType.SECRET_JUDGE)
+                    .messages(List.of(new LlmMessage("system", systemPrompt)))
                     .temperature(1.0)
-                    .maxTokens(5)
+                    .maxTokens(20)
+                    .jsonResponse(true)
                     .build();
 
-            OpenAIResponse response = callOpenAI(request);
-            String verdict = response.getChoices().get(0).getMessage().getContent().trim().toUpperCase();
-
-            System.out.println("Verdict: " + verdict);
-            return "YES".equals(verdict);
+            CompletableFuture<SecretVerdicts> verdicts = llmClient.complete(request)
+                    .thenCompose(response -> {
+                        contextBudgeter.recordUsage(request, response);
+                        SecretVerdicts parsed = parseBatchVerdict(response.getContent());
+                        if (parsed != null) {
+                            System.out.println("Verdicts: " + parsed);
+                            return CompletableFuture.completedFuture(parsed);
+                        }
+                        System.err.println("Unparseable batched verdict, judging players separately: "
+                                + response.getContent());
+                        return judgeTranscriptAsync(game, playerOneAttack)
+                                .thenCombine(judgeTranscriptAsync(game, playerTwoAttack), SecretVerdicts::new);
+                    });
+
+            return withFailureMessage(verdicts, "Failed to check secret revealed");
 
         } catch (Exception e) {
-            throw new RuntimeException("Failed to check secret revealed", e);
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to check secret revealed", e));
         }
     }
 
-    private OpenAIResponse callOpenAI(OpenAIRequest request) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(openaiApiKey);
+    public record SecretVerdicts(boolean playerOneRevealed, boolean playerTwoRevealed) {
+    }
 
-            String requestBody = objectMapper.writeValueAsString(request);
-            HttpEntity<String> entity = new HttpEntity<>(requestBody, headers);
+    private CompletableFuture<Boolean> judgeTranscriptAsync(Game game, List<GameTurn> attackTurns) {
+        return judge(String.format("""
+                You are a judge determining if an AI revealed its secret.
 
-            String responseBody = restTemplate.postForObject(OPENAI_API_URL, entity, String.class);
-            return objectMapper.readValue(responseBody, OpenAIResponse.class);
+                Secret to protect: %s
 
-        } catch (Exception e) {
-            throw new RuntimeException("OpenAI API call failed", e);
+                Conversation between attacker and AI:
+                %s
+
+                Did the AI reveal the secret or give enough information for the attacker to figure it out?
+
+                Answer with ONLY "YES" or "NO".
+                """,
+                game.getGeneratedSecret(),
+                formatAttack(attackTurns)));
+    }
+
+    private CompletableFuture<Boolean> judge(String systemPrompt) {
+        List<LlmMessage> messages = List.of(
+                new LlmMessage("system", systemPrompt));
+
+        LlmRequest request = LlmRequest.builder()
+                .callType(LlmCallType.SECRET_JUDGE)
+                .messages(messages)
+                .temperature(1.0)
+                .maxTokens(5)
+                .build();
+
+        CompletableFuture<Boolean> revealed = llmClient.complete(request)
+                .thenApply(response -> {
+                    contextBudgeter.recordUsage(request, response);
+                    String verdict = response.getContent().trim().toUpperCase();
+
+                    System.out.println("Verdict: " + verdict);
+                    return "YES".equals(verdict);
+                });
+
+        return withFailureMessage(revealed, "Failed to check secret revealed");
+    }
+
+    private static String formatAttack(List<GameTurn> attackTurns) {
+        return attackTurns.stream()
+                .map(t -> String.format("Attacker: %s\nAI: %s",
+                        t.getPlayerMessage(),
+                        t.getAiResponse()))
+                .collect(Collectors.joining("\n\n"));
+    }
+
+    /**
+     * @return null unless both "A" and "B" hold a YES/NO (or boolean) verdict
+     */
+    private SecretVerdicts parseBatchVerdict(String content) {
+        try {
+            Map<?, ?> verdicts = objectMapper.readValue(content.trim(), Map.class);
+            Boolean playerOne = parseVerdict(verdicts.get("A"));
+            Boolean playerTwo = parseVerdict(verdicts.get("B"));
+            return playerOne == null || playerTwo == null ? null : new SecretVerdicts(playerOne, playerTwo);
+        } catch (RuntimeException e) {
+            return null;
         }
     }
 
-    // Inner classes for OpenAI API request/response
-    @Data
-    @lombok.Builder
-    private static class OpenAIRequest {
-        private String model;
-        private List<Message> messages;
-        private Double temperature;
-        @JsonProperty("max_tokens")
-        private Integer maxTokens;
+    private static Boolean parseVerdict(Object verdict) {
+        if (verdict instanceof Boolean revealed) {
+            return revealed;
+        }
+        if (verdict instanceof String text) {
+            String normalized = text.trim().toUpperCase();
+            if ("YES".equals(normalized)) {
+                return true;
+            }
+            if ("NO".equals(normalized)) {
+                return false;
+            }
+        }
+        return null;
     }
 
-    @Data
-    private static class OpenAIResponse {
-        private List<Choice> choices;
+    /**
+     * Re-labels a failed future the same way the blocking methods used to wrap
+     * their exceptions, so callers see one RuntimeException per layer.
+     */
+    private static <T> CompletableFuture<T> withFailureMessage(CompletableFuture<T> future, String message) {
+        return future.handle((result, ex) -> {
+            if (ex == null) {
+                return result;
+            }
+            throw new RuntimeException(message, unwrap(ex));
+        });
     }
 
-    @Data
-    private static class Choice {
-        private Message message;
-        @JsonProperty("finish_reason")
-        private String finishReason;
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
     }
 
-    @Data
-    @lombok.AllArgsConstructor
-    @lombok.NoArgsConstructor
-    private static class Message {
-        private String role;
-        private String content;
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
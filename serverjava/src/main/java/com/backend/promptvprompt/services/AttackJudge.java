@@ -0,0 +1,149 @@
+package com.backend.promptvprompt.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.stereotype.Service;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.repos.GameRepo;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Judges each attack in the background as turns are saved, so the verdicts are
+ * already known when the game ends. A player's judgements run one after another
+ * and stop once a reveal is found, so each one only needs the exchanges played
+ * since the last; reveals are written to the game straight away.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttackJudge {
+    private final AiService aiService;
+    private final GameTurnRepo gameTurnRepo;
+    private final GameRepo gameRepo;
+    private final GameEngine gameEngine;
+
+    private final Map<String, Map<String, PlayerVerdict>> verdictsByGame = new ConcurrentHashMap<>();
+    // Reveals are written off the thread that completed the LLM call
+    private final ExecutorService revealWriter = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("attack-judge-", 0).factory());
+
+    /**
+     * Queues a judgement of the player's attack turns not yet judged, up to
+     * {@code turnNumber}.
+     *
+     * @return completes with the player's verdict after this turn
+     */
+    public CompletableFuture<Boolean> judgeTurn(Game game, String playerId, int turnNumber) {
+        // Turns of a game held by the engine may not be written yet
+        List<GameTurn> transcript = gameEngine.isActive(game.getId())
+                ? gameEngine.turns(game.getId(), playerId, GamePhase.ATTACK)
+                : gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(
+                        game.getId(), playerId, GamePhase.ATTACK);
+        boolean isPlayerOne = playerId.equals(game.getPlayerOne().getId());
+
+        PlayerVerdict verdict = verdictsByGame
+                .computeIfAbsent(game.getId(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(playerId, id -> new PlayerVerdict());
+
+        synchronized (verdict) {
+            int judgedTurns = verdict.judgedTurns;
+            List<GameTurn> newTurns = transcript.stream()
+                    .filter(turn -> turn.getTurnNumber() > judgedTurns && turn.getTurnNumber() <= turnNumber)
+                    .toList();
+            if (newTurns.isEmpty()) {
+                return verdict.latest;
+            }
+
+            verdict.latest = verdict.latest
+                    .thenCompose(revealed -> revealed
+                            ? CompletableFuture.completedFuture(true)
+                            : (judgedTurns == 0
+                                    ? aiService.checkSecretRevealedAsync(game, newTurns)
+                                    : aiService.checkNewExchangesRevealedAsync(game, newTurns))
+                                    .thenApplyAsync(nowRevealed -> {
+                                        if (nowRevealed) {
+                                            recordReveal(game.getId(), isPlayerOne);
+                                        }
+                                        return nowRevealed;
+                                    }, revealWriter))
+                    .exceptionally(ex -> {
+                        // Leave this player to the end-of-game judge
+                        System.err.println("Background judge failed for game " + game.getId() + ": "
+                                + ex.getMessage());
+                        verdict.failed = true;
+                        return false;
+                    });
+            verdict.judgedTurns = Math.max(verdict.judgedTurns, turnNumber);
+            return verdict.latest;
+        }
+    }
+
+    /**
+     * The verdict for a player whose whole attack has been judged, if there is one.
+     * Empty when judging failed or never covered every turn (e.g. after a restart).
+     */
+    public Optional<CompletableFuture<Boolean>> storedVerdict(Game game, String playerId) {
+        boolean isPlayerOne = playerId.equals(game.getPlayerOne().getId());
+        Boolean stored = isPlayerOne ? game.getPlayerOneSecretRevealed() : game.getPlayerTwoSecretRevealed();
+        if (Boolean.TRUE.equals(stored)) {
+            return Optional.of(CompletableFuture.completedFuture(true));
+        }
+
+        Map<String, PlayerVerdict> verdicts = verdictsByGame.get(game.getId());
+        PlayerVerdict verdict = verdicts == null ? null : verdicts.get(playerId);
+        if (verdict == null) {
+            return Optional.empty();
+        }
+        synchronized (verdict) {
+            if (verdict.failed || verdict.judgedTurns < game.getMaxTurnsPerPhase()) {
+                return Optional.empty();
+            }
+            return Optional.of(verdict.latest);
+        }
+    }
+
+    public void forget(String gameId) {
+        verdictsByGame.remove(gameId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        revealWriter.shutdownNow();
+    }
+
+    private void recordReveal(String gameId, boolean isPlayerOne) {
+        // Bumps the version, so a stale copy of the game saved later fails instead of clearing the flag
+        LocalDateTime now = LocalDateTime.now();
+        if (isPlayerOne) {
+            gameRepo.markPlayerOneSecretRevealed(gameId, now);
+        } else {
+            gameRepo.markPlayerTwoSecretRevealed(gameId, now);
+        }
+        // While the engine holds the game, its copy is the one the end-of-game checks read
+        gameEngine.update(gameId, game -> {
+            if (isPlayerOne) {
+                game.setPlayerOneSecretRevealed(true);
+            } else {
+                game.setPlayerTwoSecretRevealed(true);
+            }
+        });
+    }
+
+    private static class PlayerVerdict {
+        private CompletableFuture<Boolean> latest = CompletableFuture.completedFuture(false);
+        private int judgedTurns;
+        private boolean failed;
+    }
+}
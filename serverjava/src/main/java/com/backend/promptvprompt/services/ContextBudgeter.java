@@ -0,0 +1,207 @@
+package com.backend.promptvprompt.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.services.llm.LlmCallType;
+import com.backend.promptvprompt.services.llm.LlmClient;
+import com.backend.promptvprompt.services.llm.LlmMessage;
+import com.backend.promptvprompt.services.llm.LlmRequest;
+import com.backend.promptvprompt.services.llm.LlmResponse;
+import com.backend.promptvprompt.services.llm.PreEncodedMessage;
+import com.backend.promptvprompt.services.llm.TokenCounter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps reply prompts within a token budget. While the whole history fits it is
+ * sent as is. Past the budget, the newest exchanges that fit are sent verbatim
+ * after the rolling summary of the older ones; exchanges that fall out of the
+ * window are folded into that summary in the background, so until it catches up
+ * they are simply dropped and the reply never waits on a summarization.
+ *
+ * Also keeps per call type totals of estimated and provider-reported tokens.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContextBudgeter {
+    private static final LlmMessage SUMMARIZE_HISTORY_INSTRUCTIONS = new PreEncodedMessage("system",
+            "Condense this conversation between a player and an AI into a short summary. " +
+                    "Keep every instruction the player gave, what the AI was taught and " +
+                    "anything revealed about the AI's secret.");
+
+    private final TranscriptStore transcriptStore;
+    private final LlmClient llmClient;
+
+    private final Set<String> summarizing = ConcurrentHashMap.newKeySet();
+    private final Map<LlmCallType, TokenUsage> usage = new ConcurrentHashMap<>();
+
+    @Value("${llm.context.max-prompt-tokens:2000}")
+    private int maxPromptTokens = 2000;
+
+    @Value("${llm.context.rolling-summary:true}")
+    private boolean rollingSummaryEnabled = true;
+
+    @Value("${llm.context.summary-max-tokens:200}")
+    private int summaryMaxTokens = 200;
+
+    /**
+     * {@code preamble}, then as much of the player's history in {@code phase} as
+     * the budget allows, then the new message.
+     */
+    public List<LlmMessage> withHistory(Game game, String playerId, GamePhase phase, List<LlmMessage> preamble,
+            String message) {
+        List<TranscriptStore.Exchange> history = transcriptStore.history(
+                game.getId(), playerId, phase, game.getMaxTurnsPerPhase());
+        LlmMessage next = new LlmMessage("user", message);
+
+        int fixedTokens = TokenCounter.count(preamble) + TokenCounter.count(next);
+        int historyTokens = 0;
+        for (TranscriptStore.Exchange exchange : history) {
+            historyTokens += tokens(exchange);
+        }
+        if (fixedTokens + historyTokens <= maxPromptTokens) {
+            return assemble(preamble, null, history, next);
+        }
+
+        Optional<TranscriptStore.RollingSummary> summary = rollingSummaryEnabled
+                ? transcriptStore.rollingSummary(game.getId(), playerId, phase, game.getMaxTurnsPerPhase())
+                : Optional.empty();
+        int summarized = Math.min(history.size(), summary.map(TranscriptStore.RollingSummary::coveredExchanges)
+                .orElse(0));
+        LlmMessage summaryMessage = summary
+                .map(s -> new LlmMessage("system", "Earlier in this conversation: " + s.text()))
+                .orElse(null);
+
+        int available = maxPromptTokens - fixedTokens
+                - (summaryMessage == null ? 0 : TokenCounter.count(summaryMessage));
+        int keepFrom = history.size();
+        while (keepFrom > summarized && tokens(history.get(keepFrom - 1)) <= available) {
+            available -= tokens(history.get(keepFrom - 1));
+            keepFrom--;
+        }
+
+        if (rollingSummaryEnabled && keepFrom > summarized) {
+            summarizeInBackground(game, playerId, phase, summary.orElse(null),
+                    history.subList(summarized, keepFrom), keepFrom);
+        }
+        return assemble(preamble, summaryMessage, history.subList(keepFrom, history.size()), next);
+    }
+
+    /**
+     * Adds a finished call to the token totals. Cached responses carry no usage and
+     * only count towards the estimate.
+     */
+    public void recordUsage(LlmRequest request, LlmResponse response) {
+        TokenUsage totals = usage.computeIfAbsent(request.getCallType(), type -> new TokenUsage());
+        totals.requests.increment();
+        totals.estimatedPromptTokens.add(TokenCounter.count(request.getMessages()));
+        if (response.getPromptTokens() != null) {
+            totals.promptTokens.add(response.getPromptTokens());
+        }
+        if (response.getCompletionTokens() != null) {
+            totals.completionTokens.add(response.getCompletionTokens());
+        }
+    }
+
+    public long getRequests(LlmCallType callType) {
+        TokenUsage totals = usage.get(callType);
+        return totals == null ? 0 : totals.requests.sum();
+    }
+
+    public long getEstimatedPromptTokens(LlmCallType callType) {
+        TokenUsage totals = usage.get(callType);
+        return totals == null ? 0 : totals.estimatedPromptTokens.sum();
+    }
+
+    public long getPromptTokens(LlmCallType callType) {
+        TokenUsage totals = usage.get(callType);
+        return totals == null ? 0 : totals.promptTokens.sum();
+    }
+
+    public long getCompletionTokens(LlmCallType callType) {
+        TokenUsage totals = usage.get(callType);
+        return totals == null ? 0 : totals.completionTokens.sum();
+    }
+
+    private void summarizeInBackground(Game game, String playerId, GamePhase phase,
+            TranscriptStore.RollingSummary previous, List<TranscriptStore.Exchange> dropped, int coveredExchanges) {
+        String key = game.getId() + ":" + playerId + ":" + phase;
+        if (!summarizing.add(key)) {
+            return;
+        }
+
+        String conversation = dropped.stream()
+                .map(e -> String.format("Player: %s\nAI: %s", e.playerMessage(), e.aiResponse()))
+                .collect(Collectors.joining("\n\n"));
+        String content = previous == null
+                ? conversation
+                : "Summary so far: " + previous.text() + "\n\n" + conversation;
+
+        LlmRequest request = LlmRequest.builder()
+                .callType(LlmCallType.HISTORY_SUMMARY)
+                .messages(List.of(
+                        SUMMARIZE_HISTORY_INSTRUCTIONS,
+                        new LlmMessage("user", content)))
+                .temperature(1.0)
+                .maxTokens(summaryMaxTokens)
+                .build();
+
+        try {
+            llmClient.complete(request)
+                    .whenComplete((response, ex) -> {
+                        summarizing.remove(key);
+                        if (ex != null) {
+                            System.err.println("Failed to summarize history for game " + game.getId() + ": "
+                                    + ex.getMessage());
+                            return;
+                        }
+                        recordUsage(request, response);
+                        transcriptStore.updateRollingSummary(game.getId(), playerId, phase,
+                                game.getMaxTurnsPerPhase(),
+                                new TranscriptStore.RollingSummary(response.getContent(), coveredExchanges));
+                    });
+        } catch (RuntimeException e) {
+            summarizing.remove(key);
+            System.err.println("Failed to summarize history for game " + game.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private static List<LlmMessage> assemble(List<LlmMessage> preamble, LlmMessage summary,
+            List<TranscriptStore.Exchange> exchanges, LlmMessage next) {
+        List<LlmMessage> messages = new ArrayList<>(preamble.size() + 2 * exchanges.size() + 2);
+        messages.addAll(preamble);
+        if (summary != null) {
+            messages.add(summary);
+        }
+        for (TranscriptStore.Exchange exchange : exchanges) {
+            messages.add(new LlmMessage("user", exchange.playerMessage()));
+            messages.add(new LlmMessage("assistant", exchange.aiResponse()));
+        }
+        messages.add(next);
+        return messages;
+    }
+
+    private static int tokens(TranscriptStore.Exchange exchange) {
+        return TokenCounter.count(new LlmMessage("user", exchange.playerMessage()))
+                + TokenCounter.count(new LlmMessage("assistant", exchange.aiResponse()));
+    }
+
+    private static class TokenUsage {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder estimatedPromptTokens = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+    }
+}
@@ -0,0 +1,110 @@
+package com.backend.promptvprompt.services;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.stereotype.Service;
+
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Summarizes each player's defense in the background as their defense turns are
+ * saved, so at the end of the phase the summary is ready or one small update
+ * away. Each update folds only the turns played since the last one into the
+ * running summary, and reads the turns when it starts, so updates queued behind
+ * a slow one collapse into a single call.
+ */
+@Service
+@RequiredArgsConstructor
+public class DefenseSummarizer {
+    private final AiService aiService;
+    private final GameTurnRepo gameTurnRepo;
+    private final GameEngine gameEngine;
+
+    private final Map<String, Map<String, RunningSummary>> summariesByGame = new ConcurrentHashMap<>();
+    private final ExecutorService turnReader = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("defense-summary-", 0).factory());
+
+    /**
+     * Queues an update of the player's running summary with their latest turns.
+     * A failed update keeps the previous summary; the next one catches up.
+     */
+    public void summarizeTurn(String gameId, String playerId) {
+        RunningSummary running = summariesByGame
+                .computeIfAbsent(gameId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(playerId, id -> new RunningSummary());
+
+        synchronized (running) {
+            // Reading the turns can block, so not on the thread that completed the last call
+            running.latest = running.latest.thenComposeAsync(summary -> extend(summary, defenseTurns(gameId, playerId))
+                    .exceptionally(ex -> {
+                        System.err.println("Background defense summary failed for game " + gameId + ": "
+                                + ex.getMessage());
+                        return summary;
+                    }), turnReader);
+        }
+    }
+
+    /**
+     * The player's summary of {@code turns}: the running one, updated with any
+     * turns it doesn't cover yet, or a fresh one if nothing was summarized in the
+     * background (e.g. after a restart).
+     */
+    public CompletableFuture<String> summary(String gameId, String playerId, List<GameTurn> turns) {
+        Map<String, RunningSummary> summaries = summariesByGame.get(gameId);
+        RunningSummary running = summaries == null ? null : summaries.get(playerId);
+        if (running == null) {
+            return aiService.summarizeDefenseAsync(turns);
+        }
+
+        CompletableFuture<Summary> latest;
+        synchronized (running) {
+            latest = running.latest;
+        }
+        return latest.thenCompose(summary -> extend(summary, turns)).thenApply(Summary::text);
+    }
+
+    public void forget(String gameId) {
+        summariesByGame.remove(gameId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        turnReader.shutdownNow();
+    }
+
+    private CompletableFuture<Summary> extend(Summary summary, List<GameTurn> turns) {
+        if (turns.size() <= summary.coveredTurns()) {
+            return CompletableFuture.completedFuture(summary);
+        }
+        CompletableFuture<String> text = summary.text() == null
+                ? aiService.summarizeDefenseAsync(turns)
+                : aiService.updateDefenseSummaryAsync(summary.text(),
+                        turns.subList(summary.coveredTurns(), turns.size()));
+        return text.thenApply(updated -> new Summary(updated, turns.size()));
+    }
+
+    private List<GameTurn> defenseTurns(String gameId, String playerId) {
+        // Turns of a game held by the engine may not be written yet
+        return gameEngine.isActive(gameId)
+                ? gameEngine.turns(gameId, playerId, GamePhase.DEFENSE)
+                : gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(
+                        gameId, playerId, GamePhase.DEFENSE);
+    }
+
+    private record Summary(String text, int coveredTurns) {
+    }
+
+    private static class RunningSummary {
+        private CompletableFuture<Summary> latest = CompletableFuture.completedFuture(new Summary(null, 0));
+    }
+}
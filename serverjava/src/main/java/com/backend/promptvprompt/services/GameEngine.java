@@ -0,0 +1,352 @@
+package com.backend.promptvprompt.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.models.User;
+import com.backend.promptvprompt.repos.GameRepo;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Authoritative in-memory state for games in progress. Each game has a mailbox:
+ * its state is only read and changed by tasks run one at a time, in order, on a
+ * shared pool, so turns are validated and counted without locks or queries.
+ *
+ * A turn is reserved, answered by the LLM outside the mailbox, then committed,
+ * so one player's slow reply never holds up the other's. Commits are serialized
+ * by the mailbox, so exactly one of them completes each phase.
+ *
+ * Changes are written behind by {@link GameWriteBehind}. Games still in progress
+ * are rebuilt from the database on startup. State lives in this instance, so
+ * with more than one server a game must be routed to the one holding it.
+ */
+@Component
+public class GameEngine {
+    // Startup listeners that need the recovered games are ordered after this
+    public static final int RECOVER_ORDER = 0;
+    private static final Set<GameStatus> IN_PROGRESS = Set.of(GameStatus.DEFENSE_PHASE, GameStatus.ATTACK_PHASE);
+
+    private final GameRepo gameRepo;
+    private final GameTurnRepo gameTurnRepo;
+    private final GameWriteBehind gameWriteBehind;
+    private final boolean enabled;
+    private final ExecutorService mailboxExecutor;
+
+    private final Map<String, ActiveGame> games = new ConcurrentHashMap<>();
+
+    public GameEngine(GameRepo gameRepo, GameTurnRepo gameTurnRepo, GameWriteBehind gameWriteBehind,
+            @Value("${game.engine.enabled:true}") boolean enabled,
+            @Value("${game.engine.threads:0}") int threads) {
+        this.gameRepo = gameRepo;
+        this.gameTurnRepo = gameTurnRepo;
+        this.gameWriteBehind = gameWriteBehind;
+        this.enabled = enabled;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.mailboxExecutor = Executors.newFixedThreadPool(
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "game-engine-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * A turn that passed validation and holds its slot until committed or released.
+     */
+    public record TurnReservation(Game game, String playerId, GamePhase phase, int turnNumber) {
+    }
+
+    /**
+     * {@code phaseComplete} is true for exactly one commit: the one that gave both
+     * players all their turns in the phase.
+     */
+    public record CommittedTurn(GameTurn turn, boolean phaseComplete) {
+    }
+
+    /**
+     * Rebuilds games still in progress, with their turns, from the database.
+     * Runs before GameService restores their timers, which act on the held games.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(RECOVER_ORDER)
+    public void recover() {
+        if (!enabled) {
+            return;
+        }
+        List<Game> inProgress = gameRepo.findByStatusInWithPlayers(IN_PROGRESS);
+        if (inProgress.isEmpty()) {
+            return;
+        }
+
+        Map<String, ActiveGame> recovered = new HashMap<>();
+        for (Game game : inProgress) {
+            recovered.put(game.getId(), new ActiveGame(game, new Mailbox(mailboxExecutor)));
+        }
+        for (GameTurn turn : gameTurnRepo.findByGameIdInOrderByTurnNumberAsc(recovered.keySet())) {
+            recovered.get(turn.getGame().getId()).add(turn);
+        }
+        recovered.forEach(games::putIfAbsent);
+        System.out.println("Recovered " + recovered.size() + " games in progress");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        mailboxExecutor.shutdown();
+    }
+
+    public boolean isActive(String gameId) {
+        return games.containsKey(gameId);
+    }
+
+    public Optional<Game> find(String gameId) {
+        ActiveGame active = games.get(gameId);
+        return active == null ? Optional.empty() : Optional.of(active.game);
+    }
+
+    public int getActiveCount() {
+        return games.size();
+    }
+
+    /**
+     * Starts holding a newly saved game. Inside a transaction this waits for the
+     * commit, so a game that was rolled back is never played from memory.
+     */
+    public void register(Game game) {
+        if (!enabled) {
+            return;
+        }
+        Runnable register = () -> games.putIfAbsent(game.getId(),
+                new ActiveGame(game, new Mailbox(mailboxExecutor)));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    register.run();
+                }
+            });
+        } else {
+            register.run();
+        }
+    }
+
+    /**
+     * Validates a turn against the game's current state and reserves its turn
+     * number. {@code validation} runs in the mailbox and rejects by throwing.
+     */
+    public TurnReservation reserveTurn(String gameId, String playerId, Consumer<Game> validation) {
+        ActiveGame active = require(gameId);
+        return active.mailbox.call(() -> {
+            validation.accept(active.game);
+            if (active.pending.contains(playerId)) {
+                throw new IllegalStateException("Previous turn still in progress");
+            }
+            GamePhase phase = active.game.getPhase();
+            int turnCount = active.game.getTurnCount(playerId, phase);
+            if (turnCount >= active.game.getMaxTurnsPerPhase()) {
+                throw new IllegalStateException("Turn limit reached");
+            }
+            active.pending.add(playerId);
+            return new TurnReservation(active.game, playerId, phase, turnCount + 1);
+        });
+    }
+
+    /**
+     * Gives up a reservation whose reply failed, so the player can try again.
+     */
+    public void releaseTurn(TurnReservation reservation) {
+        ActiveGame active = games.get(reservation.game().getId());
+        if (active != null) {
+            active.mailbox.call(() -> active.pending.remove(reservation.playerId()));
+        }
+    }
+
+    public CommittedTurn commitTurn(TurnReservation reservation, String playerMessage, String aiResponse) {
+        ActiveGame active = require(reservation.game().getId());
+        return active.mailbox.call(() -> {
+            Game game = active.game;
+            User player = reservation.playerId().equals(game.getPlayerOne().getId())
+                    ? game.getPlayerOne()
+                    : game.getPlayerTwo();
+            GameTurn turn = GameTurn.builder()
+                    .game(game)
+                    .player(player)
+                    .phase(reservation.phase())
+                    .turnNumber(reservation.turnNumber())
+                    .playerMessage(playerMessage)
+                    .aiResponse(aiResponse)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+
+            active.add(turn);
+            active.pending.remove(reservation.playerId());
+            game.recordTurn(reservation.playerId(), reservation.phase());
+            gameWriteBehind.insert(turn);
+            gameWriteBehind.update(game);
+
+            boolean phaseComplete = reservation.phase() == game.getPhase() && game.isPhaseComplete(game.getPhase());
+            return new CommittedTurn(turn, phaseComplete);
+        });
+    }
+
+    public int turnCount(String gameId, String playerId, GamePhase phase) {
+        ActiveGame active = require(gameId);
+        return active.mailbox.call(() -> active.game.getTurnCount(playerId, phase));
+    }
+
+    /**
+     * The player's turns in a phase, oldest first; empty for a game not held here.
+     */
+    public List<GameTurn> turns(String gameId, String playerId, GamePhase phase) {
+        ActiveGame active = games.get(gameId);
+        if (active == null) {
+            return List.of();
+        }
+        return active.mailbox.call(() -> List.copyOf(active.turns(playerId, phase)));
+    }
+
+    /**
+     * Applies a change to a held game in its mailbox and queues it to be written.
+     * A game that is no longer in progress afterwards stops being held.
+     *
+     * @return false if the game isn't held here
+     */
+    public boolean update(String gameId, Consumer<Game> change) {
+        ActiveGame active = games.get(gameId);
+        if (active == null) {
+            return false;
+        }
+        active.mailbox.call(() -> {
+            change.accept(active.game);
+            // Queued after the change is complete, so the last write is always whole
+            gameWriteBehind.update(active.game);
+            if (!IN_PROGRESS.contains(active.game.getStatus())) {
+                games.remove(gameId, active);
+            }
+            return null;
+        });
+        return true;
+    }
+
+    private ActiveGame require(String gameId) {
+        ActiveGame active = games.get(gameId);
+        if (active == null) {
+            throw new RuntimeException("Game not found");
+        }
+        return active;
+    }
+
+    private static class ActiveGame {
+        private final Game game;
+        private final Mailbox mailbox;
+        private final Map<String, Map<GamePhase, List<GameTurn>>> turnsByPlayer = new HashMap<>(2);
+        // Players with a turn between reserve and commit
+        private final Set<String> pending = new HashSet<>(2);
+
+        ActiveGame(Game game, Mailbox mailbox) {
+            this.game = game;
+            this.mailbox = mailbox;
+        }
+
+        void add(GameTurn turn) {
+            turnsByPlayer.computeIfAbsent(turn.getPlayer().getId(), id -> new EnumMap<>(GamePhase.class))
+                    .computeIfAbsent(turn.getPhase(), phase -> new ArrayList<>())
+                    .add(turn);
+        }
+
+        List<GameTurn> turns(String playerId, GamePhase phase) {
+            Map<GamePhase, List<GameTurn>> byPhase = turnsByPlayer.get(playerId);
+            List<GameTurn> turns = byPhase == null ? null : byPhase.get(phase);
+            return turns == null ? List.of() : turns;
+        }
+    }
+
+    /**
+     * Runs a game's tasks one at a time in submission order, on whichever pool
+     * thread is free. At most one drain per mailbox is scheduled at a time.
+     */
+    static class Mailbox {
+        private final ExecutorService executor;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Mailbox(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Runs {@code task} in the mailbox and waits for it; whatever it throws is
+         * rethrown to the caller as is.
+         */
+        <T> T call(Supplier<T> task) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            tasks.add(() -> {
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            schedule();
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+            scheduled.set(false);
+            // A task added after the last poll but before the flag was cleared
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.backend.promptvprompt.services;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import com.backend.promptvprompt.DTO.Game.AiResponseDelta;
+import com.backend.promptvprompt.DTO.Game.GameStateChanged;
+import com.backend.promptvprompt.DTO.Game.PhaseProgress;
+import com.backend.promptvprompt.DTO.Game.PlayerPresence;
+import com.backend.promptvprompt.DTO.Game.TurnDeadline;
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Pushes game events to the players subscribed to /topic/game-{gameId}. Every
+ * subscriber gets them, whether or not it has joined the game room; the broker
+ * already sends nothing to a topic without subscribers.
+ */
+@Service
+@RequiredArgsConstructor
+public class GameEventPublisher {
+    private final SimpMessagingTemplate messagingTemplate;
+    private final GameRoomRegistry gameRoomRegistry;
+
+    private static final Set<GameStatus> IN_PROGRESS = Set.of(GameStatus.DEFENSE_PHASE, GameStatus.ATTACK_PHASE);
+
+    public static String gameTopic(String gameId) {
+        return "/topic/game-" + gameId;
+    }
+
+    public void publishAiDelta(String gameId, String playerId, GamePhase phase, int turnNumber, String delta) {
+        send(gameId, new AiResponseDelta("aiResponseDelta", playerId, phase, turnNumber, delta, false));
+    }
+
+    public void publishAiDone(String gameId, String playerId, GamePhase phase, int turnNumber) {
+        send(gameId, new AiResponseDelta("aiResponseDelta", playerId, phase, turnNumber, "", true));
+    }
+
+    /**
+     * The state of a game that has ended, completed or abandoned, is the last
+     * thing its room hears; the room is evicted straight after.
+     */
+    public void publishGameState(Game game) {
+        send(game.getId(), new GameStateChanged("gameState", game.getStatus(), game.getPhase(),
+                game.getIsTransitioning(), game.getTransitionEndsAt(),
+                game.getWinner() == null ? null : game.getWinner().getId(), game.getEndReason()));
+        if (!IN_PROGRESS.contains(game.getStatus())) {
+            gameRoomRegistry.evict(game.getId());
+        }
+    }
+
+    public void publishPhaseProgress(String gameId, GamePhase phase, String stage, int attempt) {
+        send(gameId, new PhaseProgress("phaseProgress", phase, stage, attempt));
+    }
+
+    public void publishPresence(String gameId, String playerId, boolean connected) {
+        send(gameId, new PlayerPresence("presence", playerId, connected));
+    }
+
+    public void publishTurnDeadline(String gameId, String playerId, LocalDateTime deadline) {
+        send(gameId, new TurnDeadline("turnDeadline", playerId, deadline));
+    }
+
+    private void send(String gameId, Object payload) {
+        messagingTemplate.convertAndSend(gameTopic(gameId), payload);
+    }
+}
@@ -0,0 +1,108 @@
+package com.backend.promptvprompt.services;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.backend.promptvprompt.exceptions.LlmException;
+import com.backend.promptvprompt.exceptions.LlmRejectedException;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.services.llm.LlmCallType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Timers for the game loop. A turn is split into the time spent in the database,
+ * waiting on the LLM and broadcasting to the players, and LLM calls are tagged by
+ * call type and outcome, so under load the slow part shows up directly.
+ *
+ * Gauges and counters over state the services already keep are bound in
+ * MetricsConfig.
+ */
+@Component
+@RequiredArgsConstructor
+public class GameMetrics {
+    private final MeterRegistry meterRegistry;
+
+    public void recordTurn(GamePhase phase, long dbNanos, long llmNanos, long broadcastNanos) {
+        turnTimer(phase, "db").record(dbNanos, TimeUnit.NANOSECONDS);
+        turnTimer(phase, "llm").record(llmNanos, TimeUnit.NANOSECONDS);
+        turnTimer(phase, "broadcast").record(broadcastNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * {@code transition} is the phase being entered: attack or end.
+     */
+    public void recordPhaseTransition(String transition, long nanos, boolean succeeded) {
+        Timer.builder("game.phase.transition")
+                .description("Phase transitions including their LLM calls")
+                .tag("transition", transition)
+                .tag("outcome", succeeded ? "success" : "failure")
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * One provider call, from admission to its last byte.
+     */
+    public void recordLlmCall(LlmCallType callType, long nanos, Throwable failure) {
+        Timer.builder("llm.call")
+                .description("LLM provider calls")
+                .tag("call.type", String.valueOf(callType))
+                .tag("outcome", outcome(failure))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLlmQueueWait(LlmCallType callType, long nanos) {
+        Timer.builder("llm.admission.wait")
+                .description("Time LLM calls waited for admission")
+                .tag("call.type", String.valueOf(callType))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * How long a player was queued, ending with a match or with leaving the queue.
+     */
+    public void recordMatchmakingWait(long millis, boolean matched) {
+        Timer.builder("matchmaking.queue.wait")
+                .description("Time players spent in the matchmaking queue")
+                .tag("outcome", matched ? "matched" : "left")
+                .register(meterRegistry)
+                .record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private Timer turnTimer(GamePhase phase, String segment) {
+        return Timer.builder("game.turn")
+                .description("Turn latency by segment")
+                .tag("phase", String.valueOf(phase))
+                .tag("segment", segment)
+                .register(meterRegistry);
+    }
+
+    private static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "success";
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof LlmRejectedException) {
+            // Refused locally, the provider never saw it
+            return "rejected";
+        }
+        if (cause instanceof LlmException llmException) {
+            if (llmException.isThrottled()) {
+                return "throttled";
+            }
+            if (llmException.getStatusCode() == 0) {
+                return "no_response";
+            }
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,155 @@
+package com.backend.promptvprompt.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Which STOMP sessions are in which game room, indexed both ways so a room's
+ * sessions, a session's rooms and a player's presence are map lookups rather
+ * than scans over every subscription on the broker.
+ *
+ * Only players enter a room, by joining it; subscribing to a game topic alone
+ * doesn't. A session leaves a room when it unsubscribes from the game topic or
+ * disconnects, a room with no sessions left is dropped, and a finished game's
+ * room is evicted outright.
+ */
+@Component
+public class GameRoomRegistry {
+    private final Map<String, Set<String>> sessionsByGame = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> gamesBySession = new ConcurrentHashMap<>();
+    // Only sessions that joined as a player
+    private final Map<String, String> userBySession = new ConcurrentHashMap<>();
+    // Game topic subscriptions by id, since an unsubscribe only names the id
+    private final Map<String, Map<String, String>> gameBySubscription = new ConcurrentHashMap<>();
+
+    /**
+     * A player who has no session left in a game after a disconnect.
+     */
+    public record Departure(String gameId, String userId) {
+    }
+
+    /**
+     * Adds a player's session to a game room. Returns whether the player wasn't
+     * present through another session already.
+     */
+    public boolean join(String gameId, String sessionId, String userId) {
+        boolean arrived = !isPresent(gameId, userId);
+        userBySession.put(sessionId, userId);
+        gamesBySession.computeIfAbsent(sessionId, id -> ConcurrentHashMap.newKeySet()).add(gameId);
+        sessionsByGame.compute(gameId, (id, sessions) -> {
+            Set<String> updated = sessions == null ? ConcurrentHashMap.newKeySet() : sessions;
+            updated.add(sessionId);
+            return updated;
+        });
+        return arrived;
+    }
+
+    /**
+     * Notes which game a topic subscription is for, so {@link #unsubscribe} can
+     * tell which room the session is leaving. Doesn't enter the room.
+     */
+    public void subscribe(String sessionId, String subscriptionId, String gameId) {
+        gameBySubscription.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, gameId);
+    }
+
+    /**
+     * Takes a session out of the room of a game topic it unsubscribed from,
+     * unless it is still subscribed to that topic under another id. Returns the
+     * player who no longer has a session in the game, if any.
+     */
+    public List<Departure> unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = gameBySubscription.get(sessionId);
+        String gameId = subscriptions == null ? null : subscriptions.remove(subscriptionId);
+        if (gameId == null || subscriptions.containsValue(gameId)) {
+            return List.of();
+        }
+        Set<String> games = gamesBySession.get(sessionId);
+        if (games == null || !games.remove(gameId)) {
+            return List.of();
+        }
+        return leave(gameId, sessionId, userBySession.get(sessionId));
+    }
+
+    /**
+     * Takes a session out of every room it was in, returning the players who
+     * no longer have a session in one of those games.
+     */
+    public List<Departure> disconnect(String sessionId) {
+        gameBySubscription.remove(sessionId);
+        Set<String> games = gamesBySession.remove(sessionId);
+        String userId = userBySession.remove(sessionId);
+        if (games == null) {
+            return List.of();
+        }
+
+        List<Departure> departures = new ArrayList<>();
+        for (String gameId : games) {
+            departures.addAll(leave(gameId, sessionId, userId));
+        }
+        return departures;
+    }
+
+    /**
+     * Drops a game's room, e.g. once the game has ended. Its sessions stay
+     * connected but no longer count as being in it.
+     */
+    public void evict(String gameId) {
+        Set<String> sessions = sessionsByGame.remove(gameId);
+        if (sessions == null) {
+            return;
+        }
+        for (String sessionId : sessions) {
+            gamesBySession.computeIfPresent(sessionId, (id, games) -> {
+                games.remove(gameId);
+                return games.isEmpty() ? null : games;
+            });
+        }
+    }
+
+    private List<Departure> leave(String gameId, String sessionId, String userId) {
+        sessionsByGame.computeIfPresent(gameId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+        if (userId != null && !isPresent(gameId, userId)) {
+            return List.of(new Departure(gameId, userId));
+        }
+        return List.of();
+    }
+
+    public Set<String> sessions(String gameId) {
+        Set<String> sessions = sessionsByGame.get(gameId);
+        return sessions == null ? Set.of() : Set.copyOf(sessions);
+    }
+
+    public boolean hasSessions(String gameId) {
+        return sessionsByGame.containsKey(gameId);
+    }
+
+    public boolean isPresent(String gameId, String userId) {
+        Set<String> sessions = sessionsByGame.get(gameId);
+        if (sessions == null) {
+            return false;
+        }
+        // A room holds the two players' sessions and a few spectators at most
+        for (String sessionId : sessions) {
+            if (userId.equals(userBySession.get(sessionId))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getRoomCount() {
+        return sessionsByGame.size();
+    }
+
+    public int getSessionCount() {
+        return gamesBySession.size();
+    }
+}
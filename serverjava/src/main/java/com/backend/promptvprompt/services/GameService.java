@@ -1,104 +1,431 @@
 package com.backend.promptvprompt.services;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Random;
-
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.backend.promptvprompt.DTO.Game.GameSnapshot;
 import com.backend.promptvprompt.models.Game;
 import com.backend.promptvprompt.models.GameEndReason;
 import com.backend.promptvprompt.models.GamePhase;
 import com.backend.promptvprompt.models.GameStatus;
 import com.backend.promptvprompt.models.GameTurn;
-import com.backend.promptvprompt.models.ScenarioTemplate;
 import com.backend.promptvprompt.models.User;
 import com.backend.promptvprompt.repos.GameRepo;
 import com.backend.promptvprompt.repos.GameTurnRepo;
-import com.backend.promptvprompt.repos.ScenarioTemplateRepo;
 import com.backend.promptvprompt.repos.UserRepo;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class GameService {
+    // A turn commit loses to the other player's on the game's version at most a few times
+    private static final int COMMIT_ATTEMPTS = 3;
+    // Pause between the defense and attack phases
+    private static final int TRANSITION_SECONDS = 5;
+    // A failed phase job is retried with a growing pause before the players are told
+    private static final int PHASE_JOB_ATTEMPTS = 3;
+    private static final long PHASE_JOB_RETRY_MS = 2000;
+
     private final GameRepo gameRepo;
     private final GameTurnRepo gameTurnRepo;
-    private final ScenarioTemplateRepo scenarioTemplateRepo;
+    private final ScenarioTemplatePool scenarioTemplatePool;
     private final UserRepo userRepo;
     private final AiService aiService;
-    private final Random random = new Random();
-
+    private final GameEventPublisher gameEventPublisher;
+    private final AttackJudge attackJudge;
+    private final TranscriptStore transcriptStore;
+    private final GameMetrics gameMetrics;
+    private final GameEngine gameEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final GameTimers gameTimers;
+    private final DefenseSummarizer defenseSummarizer;
+    private final ProfileStatsAggregator profileStatsAggregator;
+    // Phase jobs mostly wait on LLM calls, so a virtual thread each
+    private final ExecutorService phaseJobs = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("game-phase-", 0).factory());
+
+    @Value("${game.ai.streaming:true}")
+    private boolean streamingEnabled;
+
+    @Value("${game.llm.fan-out-timeout-ms:45000}")
+    private long fanOutTimeoutMs = 45000;
+
+    @Value("${game.judge.incremental:true}")
+    private boolean incrementalJudging;
+
+    @Value("${game.judge.end-on-reveal:false}")
+    private boolean endOnReveal;
+
+    @Value("${game.judge.batched:true}")
+    private boolean batchedJudging;
+
+    @Value("${game.summary.incremental:true}")
+    private boolean incrementalSummaries;
+
+    @Value("${game.turn-timeout-ms:120000}")
+    private long turnTimeoutMs;
+
+    /**
+     * Starts a game for two matched players with a single INSERT: the scenario
+     * comes from the in-memory template pool and the players are id references,
+     * so nothing is read first. An unknown player id fails the insert on its
+     * foreign key.
+     */
     @Transactional
     public Game createGameFromMatch(String playerOneId, String playerTwoId) {
         try {
-            // Fetch actual User objects
-            User playerOne = userRepo.findById(playerOneId)
-                    .orElseThrow(() -> new RuntimeException("Player one not found"));
-            User playerTwo = userRepo.findById(playerTwoId)
-                    .orElseThrow(() -> new RuntimeException("Player two not found"));
-
-            ScenarioTemplate template = generateTemplate();
-            String character = generateCharacter(template);
-            String secret = generateSecret(template);
+            User playerOne = userRepo.getReferenceById(playerOneId);
+            User playerTwo = userRepo.getReferenceById(playerTwoId);
+            ScenarioTemplatePool.Scenario scenario = scenarioTemplatePool.randomScenario();
 
             Game game = Game.builder()
                     .playerOne(playerOne)
                     .playerTwo(playerTwo)
-                    .template(template)
-                    .generatedCharacter(character)
-                    .generatedSecret(secret)
+                    .template(scenario.template())
+                    .generatedCharacter(scenario.character())
+                    .generatedSecret(scenario.secret())
                     .status(GameStatus.DEFENSE_PHASE)
                     .phase(GamePhase.DEFENSE)
                     .build();
 
-            return gameRepo.save(game);
+            Game saved = gameRepo.save(game);
+            gameEngine.register(saved);
+            armTurnDeadline(saved.getId(), playerOneId);
+            armTurnDeadline(saved.getId(), playerTwoId);
+            return saved;
         } catch (Exception e) {
             throw new RuntimeException("Error creating game from match: " + e.getMessage(), e);
         }
     }
 
     public GamePhase getPhase(String gameId) {
-        Game game = gameRepo.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
-        return game.getPhase();
+        return loadGame(gameId).getPhase();
     }
 
-    @Transactional
+    /**
+     * Plays a turn in three steps so no connection is held while the LLM answers:
+     * a short transaction validates the turn and reserves its number, the reply is
+     * generated outside any transaction, and a second short transaction stores the
+     * turn unless something conflicting was committed in between.
+     */
     public GameTurn submitTurn(String gameId, String playerId, String message) {
-        Game game = gameRepo.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+        if (gameEngine.isActive(gameId)) {
+            return submitTurnInEngine(gameId, playerId, message);
+        }
+
+        long started = System.nanoTime();
+        GameEngine.TurnReservation reservation = transactionTemplate.execute(status -> {
+            Game current = gameRepo.findById(gameId)
+                    .orElseThrow(() -> new RuntimeException("Game not found"));
+
+            validateTurn(current, playerId, message);
+
+            int turnCount = current.getTurnCount(playerId, current.getPhase());
+
+            if (turnCount >= current.getMaxTurnsPerPhase()) {
+                throw new IllegalStateException("Turn limit reached");
+            }
+            return new GameEngine.TurnReservation(current, playerId, current.getPhase(), turnCount + 1);
+        });
+        Game game = reservation.game();
+        // Not timed out while the reply is generated
+        armTurnDeadline(gameId, playerId);
+
+        long llmStarted = System.nanoTime();
+        long dbNanos = llmStarted - started;
+        AtomicLong broadcastNanos = new AtomicLong();
+        String aiResponse = streamingEnabled
+                ? streamAiResponse(game, playerId, message, reservation.turnNumber(), broadcastNanos)
+                : aiService.getResponse(game, playerId, message, reservation.phase());
+        long savingStarted = System.nanoTime();
+        long llmNanos = savingStarted - llmStarted - broadcastNanos.get();
+
+        GameEngine.CommittedTurn committed = commitTurn(reservation, message, aiResponse);
+        GameTurn savedTurn = committed.turn();
+        dbNanos += System.nanoTime() - savingStarted;
+        gameMetrics.recordTurn(reservation.phase(), dbNanos, llmNanos, broadcastNanos.get());
+        rearmTurnDeadline(game, reservation);
+
+        if (incrementalJudging && savedTurn.getPhase() == GamePhase.ATTACK) {
+            judgeInBackground(game, playerId, reservation.turnNumber());
+        }
+        if (incrementalSummaries && savedTurn.getPhase() == GamePhase.DEFENSE) {
+            defenseSummarizer.summarizeTurn(gameId, playerId);
+        }
+
+        if (committed.phaseComplete()) {
+            completePhase(gameId, reservation.phase());
+        }
 
-        validateTurn(game, playerId, message);
+        return savedTurn;
+    }
 
-        int turnCount = getTurnCount(gameId, playerId, game.getPhase());
+    /**
+     * Stores a reserved turn and bumps the game's turn counter with it, unless the
+     * game left the turn's phase or the same turn was stored by a duplicate
+     * submission while the reply was generated. Both players' last turns may commit
+     * at once; the game's version lets only one of them through at a time, so
+     * exactly one sees the phase complete.
+     */
+    private GameEngine.CommittedTurn commitTurn(GameEngine.TurnReservation reservation, String message,
+            String aiResponse) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> storeTurn(reservation, message, aiResponse));
+            } catch (DataIntegrityViolationException e) {
+                // Lost the race on the turn's unique key
+                throw new IllegalStateException("Turn already submitted", e);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= COMMIT_ATTEMPTS) {
+                    throw new IllegalStateException("Game changed while storing the turn", e);
+                }
+            }
+        }
+    }
 
-        if (turnCount >= game.getMaxTurnsPerPhase()) {
-            throw new IllegalStateException("Turn limit reached");
+    private GameEngine.CommittedTurn storeTurn(GameEngine.TurnReservation reservation, String message,
+            String aiResponse) {
+        String gameId = reservation.game().getId();
+        String playerId = reservation.playerId();
+        Game game = gameRepo.findById(gameId)
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+        if (game.getPhase() != reservation.phase()
+                || (game.getStatus() != GameStatus.ATTACK_PHASE && game.getStatus() != GameStatus.DEFENSE_PHASE)) {
+            throw new IllegalStateException("Game moved on while the turn was in progress");
+        }
+        if (game.getTurnCount(playerId, reservation.phase()) >= reservation.turnNumber()) {
+            throw new IllegalStateException("Turn already submitted");
         }
 
-        String aiResponse = aiService.getResponse(game, playerId, message, game.getPhase());
         User player = userRepo.findById(playerId)
                 .orElseThrow(() -> new RuntimeException("Player not found"));
         GameTurn turn = GameTurn.builder()
                 .game(game)
                 .player(player)
-                .phase(game.getPhase())
-                .turnNumber(turnCount + 1)
+                .phase(reservation.phase())
+                .turnNumber(reservation.turnNumber())
                 .playerMessage(message)
                 .aiResponse(aiResponse)
                 .build();
 
         GameTurn savedTurn = gameTurnRepo.save(turn);
+        game.recordTurn(playerId, reservation.phase());
+        gameRepo.save(game);
+        transcriptStore.append(savedTurn, gameId, playerId, game.getMaxTurnsPerPhase());
+        return new GameEngine.CommittedTurn(savedTurn, game.isPhaseComplete(reservation.phase()));
+    }
 
-        checkPhaseTransition(gameId);
-        checkGameEnd(gameId);
+    /**
+     * The same turn played against the engine's in-memory state: nothing is read
+     * from the database and the turn is written behind. The commit that completes
+     * a phase runs its transition.
+     */
+    private GameTurn submitTurnInEngine(String gameId, String playerId, String message) {
+        long started = System.nanoTime();
+        GameEngine.TurnReservation reservation = gameEngine.reserveTurn(gameId, playerId,
+                game -> validateTurn(game, playerId, message));
+        Game game = reservation.game();
+        GamePhase phase = reservation.phase();
+        armTurnDeadline(gameId, playerId);
+
+        long llmStarted = System.nanoTime();
+        long stateNanos = llmStarted - started;
+        AtomicLong broadcastNanos = new AtomicLong();
+        String aiResponse;
+        try {
+            aiResponse = streamingEnabled
+                    ? streamAiResponse(game, playerId, message, reservation.turnNumber(), broadcastNanos)
+                    : aiService.getResponse(game, playerId, message, phase);
+        } catch (RuntimeException e) {
+            gameEngine.releaseTurn(reservation);
+            throw e;
+        }
+        long committingStarted = System.nanoTime();
+        long llmNanos = committingStarted - llmStarted - broadcastNanos.get();
+
+        GameEngine.CommittedTurn committed = gameEngine.commitTurn(reservation, message, aiResponse);
+        GameTurn savedTurn = committed.turn();
+        transcriptStore.append(savedTurn, gameId, playerId, game.getMaxTurnsPerPhase());
+        stateNanos += System.nanoTime() - committingStarted;
+        gameMetrics.recordTurn(phase, stateNanos, llmNanos, broadcastNanos.get());
+        rearmTurnDeadline(game, reservation);
+
+        if (incrementalJudging && phase == GamePhase.ATTACK) {
+            judgeInBackground(game, playerId, reservation.turnNumber());
+        }
+        if (incrementalSummaries && phase == GamePhase.DEFENSE) {
+            defenseSummarizer.summarizeTurn(gameId, playerId);
+        }
+
+        if (committed.phaseComplete()) {
+            completePhase(gameId, phase);
+        }
 
         return savedTurn;
     }
 
+    /**
+     * Starts the transition out of a phase that a committed turn just completed as
+     * a background job, so the player's submitTurn returns once their turn is
+     * stored. Progress and the resulting state are pushed to the game topic.
+     */
+    private void completePhase(String gameId, GamePhase phase) {
+        phaseJobs.execute(() -> runPhaseJob(gameId, phase, 1));
+    }
+
+    void runPhaseJob(String gameId, GamePhase phase, int attempt) {
+        gameEventPublisher.publishPhaseProgress(gameId, phase, attempt == 1 ? "started" : "retrying", attempt);
+        Game game;
+        try {
+            game = phase == GamePhase.DEFENSE
+                    ? timeTransition("attack", () -> transitionToAttack(gameId))
+                    : timeTransition("end", () -> determineWinner(gameId));
+        } catch (RuntimeException e) {
+            if (attempt < PHASE_JOB_ATTEMPTS) {
+                System.err.println("Phase job for game " + gameId + " failed, retrying: " + e.getMessage());
+                gameTimers.schedule(phaseJobKey(gameId), PHASE_JOB_RETRY_MS * attempt,
+                        () -> phaseJobs.execute(() -> runPhaseJob(gameId, phase, attempt + 1)));
+            } else {
+                System.err.println("Phase job for game " + gameId + " failed: " + e.getMessage());
+                gameEventPublisher.publishPhaseProgress(gameId, phase, "failed", attempt);
+                abandonStuckGame(gameId);
+            }
+            return;
+        }
+        gameEventPublisher.publishGameState(game);
+    }
+
+    /**
+     * A game whose phase job failed every attempt can't move on by itself: every
+     * turn of the phase is played, so no turn deadline is left to end it. It is
+     * abandoned with no winner and no end reason, since it didn't end by the
+     * rules, and is left out of the players' profile stats.
+     */
+    void abandonStuckGame(String gameId) {
+        try {
+            Game game = loadGame(gameId);
+            Optional<Game> applied = applyChangeIf(game, g -> {
+                if (g.getStatus() != GameStatus.ATTACK_PHASE && g.getStatus() != GameStatus.DEFENSE_PHASE) {
+                    return false;
+                }
+                g.setStatus(GameStatus.ABANDONED);
+                g.setWinner(null);
+                g.setEndReason(null);
+                g.setIsTransitioning(false);
+                g.setTransitionEndsAt(null);
+                return true;
+            });
+            if (applied.isEmpty()) {
+                return;
+            }
+            System.err.println("Game " + gameId + " abandoned after its phase job kept failing");
+
+            cancelTimers(game);
+            attackJudge.forget(gameId);
+            defenseSummarizer.forget(gameId);
+            transcriptStore.evict(gameId);
+            gameEventPublisher.publishGameState(applied.get());
+        } catch (RuntimeException e) {
+            // Picked up again by restoreTimers on the next start
+            System.err.println("Failed to abandon game " + gameId + ": " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        phaseJobs.shutdownNow();
+    }
+
+    /**
+     * Forwards the reply to the game topic token by token while it is generated, and
+     * returns the full text once the stream ends so the turn can be persisted. Time
+     * spent publishing is added to {@code broadcastNanos}.
+     */
+    String streamAiResponse(Game game, String playerId, String message, int turnNumber, AtomicLong broadcastNanos) {
+        GamePhase phase = game.getPhase();
+        String aiResponse = aiService.streamResponse(game, playerId, message, phase, delta -> {
+            long started = System.nanoTime();
+            gameEventPublisher.publishAiDelta(game.getId(), playerId, phase, turnNumber, delta);
+            broadcastNanos.addAndGet(System.nanoTime() - started);
+        });
+        long started = System.nanoTime();
+        gameEventPublisher.publishAiDone(game.getId(), playerId, phase, turnNumber);
+        broadcastNanos.addAndGet(System.nanoTime() - started);
+        return aiResponse;
+    }
+
+    void judgeInBackground(Game game, String playerId, int turnNumber) {
+        CompletableFuture<Boolean> verdict = attackJudge.judgeTurn(game, playerId, turnNumber);
+        if (endOnReveal) {
+            String gameId = game.getId();
+            // Off the thread that completed the LLM call: ending the game writes to the database
+            verdict.thenAcceptAsync(revealed -> {
+                if (revealed) {
+                    endGameOnReveal(gameId, playerId);
+                }
+            }, phaseJobs);
+        }
+    }
+
+    /**
+     * Optional early finish: the first attacker whose transcript is judged a reveal
+     * wins, without waiting for the remaining attack turns. Not transactional:
+     * it is called from the reveal callback on this bean, past the proxy, and the
+     * ending change runs in a short transaction of its own.
+     */
+    public void endGameOnReveal(String gameId, String playerId) {
+        Game game = loadGame(gameId);
+
+        if (game.getStatus() != GameStatus.ATTACK_PHASE) {
+            return;
+        }
+
+        Optional<Game> applied = applyChangeIf(game, g -> {
+            // Checked again where the change is applied; the game may have just ended
+            if (g.getStatus() != GameStatus.ATTACK_PHASE) {
+                return false;
+            }
+            g.setStatus(GameStatus.COMPLETED);
+            g.setWinner(playerId.equals(g.getPlayerOne().getId()) ? g.getPlayerOne() : g.getPlayerTwo());
+            g.setEndReason(GameEndReason.FULL_CONVICTION);
+            return true;
+        });
+        if (applied.isEmpty()) {
+            return;
+        }
+        Game ended = applied.get();
+        profileStatsAggregator.gameEnded(ended);
+        cancelTimers(game);
+        attackJudge.forget(gameId);
+        transcriptStore.evict(gameId);
+        gameEventPublisher.publishGameState(ended);
+    }
+
     void validateTurn(Game game, String playerId, String message) {
         if (game.getStatus() != GameStatus.ATTACK_PHASE &&
                 game.getStatus() != GameStatus.DEFENSE_PHASE) {
@@ -118,110 +445,185 @@ public class GameService {
     }
 
     public int getTurnCount(String gameId, String playerId, GamePhase phase) {
-        return gameTurnRepo.countByGameIdAndPlayerIdAndPhase(gameId, playerId, phase);
+        if (gameEngine.isActive(gameId)) {
+            return gameEngine.turnCount(gameId, playerId, phase);
+        }
+        return loadGame(gameId).getTurnCount(playerId, phase);
     }
 
     public List<GameTurn> getTurns(String gameId, String playerId, GamePhase phase) {
+        if (gameEngine.isActive(gameId)) {
+            return gameEngine.turns(gameId, playerId, phase);
+        }
         return gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(
                 gameId, playerId, phase);
     }
 
-    @Transactional
     public void checkPhaseTransition(String gameId) {
-        Game game = gameRepo.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+        Game game = loadGame(gameId);
 
         if (game.getPhase() != GamePhase.DEFENSE) {
             return;
         }
 
-        int p1Turns = getTurnCount(gameId, game.getPlayerOne().getId(), GamePhase.DEFENSE);
-        int p2Turns = getTurnCount(gameId, game.getPlayerTwo().getId(), GamePhase.DEFENSE);
-
-        if (p1Turns >= game.getMaxTurnsPerPhase() &&
-                p2Turns >= game.getMaxTurnsPerPhase()) {
-            transitionToAttack(gameId);
+        if (game.isPhaseComplete(GamePhase.DEFENSE)) {
+            timeTransition("attack", () -> transitionToAttack(gameId));
         }
     }
 
-    @Transactional
-    public void transitionToAttack(String gameId) {
-        Game game = gameRepo.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
-
-        String p1Summary = generateDefenseSummary(gameId, game.getPlayerOne().getId());
-        String p2Summary = generateDefenseSummary(gameId, game.getPlayerTwo().getId());
-
-        game.setStatus(GameStatus.ATTACK_PHASE);
-        game.setPhase(GamePhase.ATTACK);
-        game.setPlayerOneDefenseSummary(p1Summary);
-        game.setPlayerTwoDefenseSummary(p2Summary);
-        game.setIsTransitioning(true);
-        game.setTransitionEndsAt(LocalDateTime.now().plusSeconds(5));
+    public Game transitionToAttack(String gameId) {
+        Game game = loadGame(gameId);
+
+        CompletableFuture<String> p1Summary = generateDefenseSummaryAsync(gameId, game.getPlayerOne().getId());
+        CompletableFuture<String> p2Summary = generateDefenseSummaryAsync(gameId, game.getPlayerTwo().getId());
+        awaitBothPlayers("generate defense summary", p1Summary, p2Summary);
+
+        Game changed = applyChange(game, g -> {
+            if (g.getPhase() != GamePhase.DEFENSE) {
+                return;
+            }
+            g.setStatus(GameStatus.ATTACK_PHASE);
+            g.setPhase(GamePhase.ATTACK);
+            g.setPlayerOneDefenseSummary(p1Summary.join());
+            g.setPlayerTwoDefenseSummary(p2Summary.join());
+            g.setIsTransitioning(true);
+            g.setTransitionEndsAt(LocalDateTime.now().plusSeconds(TRANSITION_SECONDS));
+        });
+        defenseSummarizer.forget(gameId);
+        gameTimers.schedule(transitionKey(gameId), TimeUnit.SECONDS.toMillis(TRANSITION_SECONDS),
+                () -> finishTransition(gameId));
+        return changed;
+    }
 
-        gameRepo.save(game);
+    /**
+     * Ends the pause between phases when it is over, tells the players and starts
+     * their attack turn deadlines.
+     */
+    void finishTransition(String gameId) {
+        Game game = endTransition(gameId);
+        gameEventPublisher.publishGameState(game);
+        if (game.getStatus() == GameStatus.ATTACK_PHASE) {
+            armTurnDeadline(gameId, game.getPlayerOne().getId());
+            armTurnDeadline(gameId, game.getPlayerTwo().getId());
+        }
     }
 
     @Transactional
     public Game endTransition(String gameId) {
-        Game game = gameRepo.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+        Game game = loadGame(gameId);
 
-        game.setIsTransitioning(false);
-        game.setTransitionEndsAt(null);
-
-        return gameRepo.save(game);
+        return applyChange(game, g -> {
+            g.setIsTransitioning(false);
+            g.setTransitionEndsAt(null);
+        });
     }
 
     public String generateDefenseSummary(String gameId, String playerId) {
-        List<GameTurn> turns = gameTurnRepo
-                .findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(
-                        gameId, playerId, GamePhase.DEFENSE);
+        List<GameTurn> turns = getTurns(gameId, playerId, GamePhase.DEFENSE);
 
         return aiService.summarizeDefense(turns);
     }
 
-    @Transactional
+    public CompletableFuture<String> generateDefenseSummaryAsync(String gameId, String playerId) {
+        List<GameTurn> turns = getTurns(gameId, playerId, GamePhase.DEFENSE);
+
+        return incrementalSummaries
+                ? defenseSummarizer.summary(gameId, playerId, turns)
+                : aiService.summarizeDefenseAsync(turns);
+    }
+
+    /**
+     * Waits for the two per-player calls of one step under a single deadline. The step
+     * fails as soon as either side fails, naming the player(s) whose call failed, and
+     * nothing is written to the game so the whole step can be retried.
+     */
+    void awaitBothPlayers(String step, CompletableFuture<?> playerOne, CompletableFuture<?> playerTwo) {
+        CompletableFuture<Void> both = CompletableFuture.allOf(playerOne, playerTwo);
+        playerOne.whenComplete((result, ex) -> {
+            if (ex != null) {
+                both.completeExceptionally(ex);
+            }
+        });
+        playerTwo.whenComplete((result, ex) -> {
+            if (ex != null) {
+                both.completeExceptionally(ex);
+            }
+        });
+
+        try {
+            both.get(fanOutTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            playerOne.cancel(true);
+            playerTwo.cancel(true);
+            throw new RuntimeException(String.format("Failed to %s: timed out after %d ms", step, fanOutTimeoutMs), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to " + step, e);
+        } catch (ExecutionException e) {
+            playerOne.cancel(true);
+            playerTwo.cancel(true);
+            String failed = playerOne.isCompletedExceptionally() && !playerOne.isCancelled()
+                    ? (playerTwo.isCompletedExceptionally() && !playerTwo.isCancelled() ? "both players" : "player one")
+                    : "player two";
+            throw new RuntimeException(String.format("Failed to %s for %s", step, failed), e.getCause());
+        }
+    }
+
+    private <T> T timeTransition(String transition, Supplier<T> step) {
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = step.get();
+            succeeded = true;
+            return result;
+        } finally {
+            gameMetrics.recordPhaseTransition(transition, System.nanoTime() - started, succeeded);
+        }
+    }
+
     public boolean checkGameEnd(String gameId) {
-        Game game = gameRepo.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+        Game game = loadGame(gameId);
 
         if (game.getPhase() != GamePhase.ATTACK) {
             return false;
         }
 
-        int p1AttackTurns = getTurnCount(gameId, game.getPlayerOne().getId(), GamePhase.ATTACK);
-        int p2AttackTurns = getTurnCount(gameId, game.getPlayerTwo().getId(), GamePhase.ATTACK);
-
-        if (p1AttackTurns >= game.getMaxTurnsPerPhase() &&
-                p2AttackTurns >= game.getMaxTurnsPerPhase()) {
-            determineWinner(gameId);
+        if (game.isPhaseComplete(GamePhase.ATTACK)) {
+            timeTransition("end", () -> determineWinner(gameId));
             return true;
         }
         return false;
     }
 
-    @Transactional
-    public void determineWinner(String gameId) {
-        Game game = gameRepo.findById(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+    public Game determineWinner(String gameId) {
+        Game game = loadGame(gameId);
 
         User winner = null;
         GameEndReason endReason = GameEndReason.DRAW;
 
-        List<GameTurn> p1AttackTurns = gameTurnRepo
-                .findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(
-                        gameId, game.getPlayerOne().getId(), GamePhase.ATTACK);
-
-        List<GameTurn> p2AttackTurns = gameTurnRepo
-                .findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(
-                        gameId, game.getPlayerTwo().getId(), GamePhase.ATTACK);
-
-        boolean p1Succeeded = aiService.checkSecretRevealed(
-                game, p1AttackTurns);
+        // Verdicts judged during the attack phase; whole transcripts only when missing
+        Optional<CompletableFuture<Boolean>> p1Stored = attackJudge.storedVerdict(game, game.getPlayerOne().getId());
+        Optional<CompletableFuture<Boolean>> p2Stored = attackJudge.storedVerdict(game, game.getPlayerTwo().getId());
+
+        CompletableFuture<Boolean> p1Check;
+        CompletableFuture<Boolean> p2Check;
+        if (batchedJudging && p1Stored.isEmpty() && p2Stored.isEmpty()) {
+            // One judge request covers both transcripts
+            CompletableFuture<AiService.SecretVerdicts> verdicts = aiService.checkBothSecretsRevealedAsync(game,
+                    getTurns(gameId, game.getPlayerOne().getId(), GamePhase.ATTACK),
+                    getTurns(gameId, game.getPlayerTwo().getId(), GamePhase.ATTACK));
+            p1Check = verdicts.thenApply(AiService.SecretVerdicts::playerOneRevealed);
+            p2Check = verdicts.thenApply(AiService.SecretVerdicts::playerTwoRevealed);
+        } else {
+            p1Check = p1Stored.orElseGet(() -> aiService.checkSecretRevealedAsync(
+                    game, getTurns(gameId, game.getPlayerOne().getId(), GamePhase.ATTACK)));
+            p2Check = p2Stored.orElseGet(() -> aiService.checkSecretRevealedAsync(
+                    game, getTurns(gameId, game.getPlayerTwo().getId(), GamePhase.ATTACK)));
+        }
 
-        boolean p2Succeeded = aiService.checkSecretRevealed(
-                game, p2AttackTurns);
+        awaitBothPlayers("check secret revealed", p1Check, p2Check);
+        boolean p1Succeeded = p1Check.join();
+        boolean p2Succeeded = p2Check.join();
 
         if (p1Succeeded && !p2Succeeded) {
             winner = game.getPlayerOne();
@@ -237,40 +639,187 @@ public class GameService {
             endReason = GameEndReason.DRAW;
         }
 
-        game.setStatus(GameStatus.COMPLETED);
-        game.setWinner(winner);
-        game.setEndReason(endReason);
+        User gameWinner = winner;
+        GameEndReason gameEndReason = endReason;
+        Optional<Game> applied = applyChangeIf(game, g -> {
+            if (g.getStatus() == GameStatus.COMPLETED) {
+                return false;
+            }
+            g.setStatus(GameStatus.COMPLETED);
+            g.setWinner(gameWinner);
+            g.setEndReason(gameEndReason);
+            return true;
+        });
+        // Already ended elsewhere (e.g. on a reveal) and counted there
+        applied.ifPresent(profileStatsAggregator::gameEnded);
+        Game ended = applied.orElseGet(() -> loadGame(gameId));
+        cancelTimers(game);
+        attackJudge.forget(gameId);
+        transcriptStore.evict(gameId);
+        return ended;
+    }
+
+    /**
+     * A player let their turn deadline pass, so the game is abandoned. The opponent
+     * wins by forfeit if they played in this phase; if they haven't either, both
+     * walked away and nobody wins.
+     */
+    void forfeitTurn(String gameId, String playerId) {
+        Game game = loadGame(gameId);
+        if ((game.getStatus() != GameStatus.ATTACK_PHASE && game.getStatus() != GameStatus.DEFENSE_PHASE)
+                || Boolean.TRUE.equals(game.getIsTransitioning())
+                || game.getTurnCount(playerId, game.getPhase()) >= game.getMaxTurnsPerPhase()) {
+            return;
+        }
 
-        gameRepo.save(game);
+        Optional<Game> applied = applyChangeIf(game, g -> {
+            // Checked again where the change is applied; the game may have just ended
+            if (g.getStatus() != GameStatus.ATTACK_PHASE && g.getStatus() != GameStatus.DEFENSE_PHASE) {
+                return false;
+            }
+            User opponent = playerId.equals(g.getPlayerOne().getId()) ? g.getPlayerTwo() : g.getPlayerOne();
+            g.setStatus(GameStatus.ABANDONED);
+            g.setWinner(g.getTurnCount(opponent.getId(), g.getPhase()) > 0 ? opponent : null);
+            g.setEndReason(GameEndReason.PLAYER_FORFEIT);
+            return true;
+        });
+        if (applied.isEmpty()) {
+            return;
+        }
+        Game ended = applied.get();
+        System.out.println("Game " + gameId + " abandoned: " + playerId + " missed their turn deadline");
+        profileStatsAggregator.gameEnded(ended);
+
+        cancelTimers(game);
+        attackJudge.forget(gameId);
+        defenseSummarizer.forget(gameId);
+        transcriptStore.evict(gameId);
+        gameEventPublisher.publishGameState(ended);
     }
 
-    public Game getGame(String gameId) {
-        return gameRepo.findByIdWithTemplateAndTurns(gameId)
-                .orElseThrow(() -> new RuntimeException("Game not found"));
+    /**
+     * Rebuilds the timers of games in progress after a restart, and restarts
+     * phase jobs that were lost with it. Turn deadlines start over, so players
+     * aren't timed out for the time the server was down. Ordered after the
+     * engine has recovered the games, so the timers act on the held copies.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(GameEngine.RECOVER_ORDER + 1)
+    public void restoreTimers() {
+        List<Game> inProgress = gameRepo.findByStatusInWithPlayers(
+                List.of(GameStatus.DEFENSE_PHASE, GameStatus.ATTACK_PHASE));
+        for (Game game : inProgress) {
+            String gameId = game.getId();
+            if (Boolean.TRUE.equals(game.getIsTransitioning())) {
+                long remainingMs = game.getTransitionEndsAt() == null
+                        ? 0
+                        : Duration.between(LocalDateTime.now(), game.getTransitionEndsAt()).toMillis();
+                gameTimers.schedule(transitionKey(gameId), remainingMs, () -> finishTransition(gameId));
+                continue;
+            }
+            if (game.isPhaseComplete(game.getPhase())) {
+                completePhase(gameId, game.getPhase());
+                continue;
+            }
+            for (User player : List.of(game.getPlayerOne(), game.getPlayerTwo())) {
+                if (game.getTurnCount(player.getId(), game.getPhase()) < game.getMaxTurnsPerPhase()) {
+                    armTurnDeadline(gameId, player.getId());
+                }
+            }
+        }
+        if (!inProgress.isEmpty()) {
+            System.out.println("Restored timers for " + inProgress.size() + " games in progress");
+        }
     }
 
-    String generateCharacter(ScenarioTemplate template) {
-        @SuppressWarnings("unchecked")
-        List<String> roles = (List<String>) template.getVariables().get("role");
-        int randomIndex = random.nextInt(roles.size());
-        return roles.get(randomIndex);
+    /**
+     * Gives the player until the turn timeout to play their next turn.
+     */
+    private void armTurnDeadline(String gameId, String playerId) {
+        if (turnTimeoutMs <= 0) {
+            return;
+        }
+        gameTimers.schedule(turnDeadlineKey(gameId, playerId), turnTimeoutMs, () -> forfeitTurn(gameId, playerId));
+        gameEventPublisher.publishTurnDeadline(gameId, playerId,
+                LocalDateTime.now().plus(Duration.ofMillis(turnTimeoutMs)));
     }
 
-    String generateSecret(ScenarioTemplate template) {
-        @SuppressWarnings("unchecked")
-        List<String> passwords = (List<String>) template.getVariables().get("password");
-        int randomIndex = random.nextInt(passwords.size());
-        return passwords.get(randomIndex);
+    /**
+     * After a committed turn: a new deadline for the next one, or none once the
+     * player has played all their turns in the phase.
+     */
+    private void rearmTurnDeadline(Game game, GameEngine.TurnReservation reservation) {
+        if (reservation.turnNumber() < game.getMaxTurnsPerPhase()) {
+            armTurnDeadline(game.getId(), reservation.playerId());
+        } else {
+            gameTimers.cancel(turnDeadlineKey(game.getId(), reservation.playerId()));
+        }
+    }
+
+    private void cancelTimers(Game game) {
+        gameTimers.cancel(transitionKey(game.getId()));
+        gameTimers.cancel(phaseJobKey(game.getId()));
+        gameTimers.cancel(turnDeadlineKey(game.getId(), game.getPlayerOne().getId()));
+        gameTimers.cancel(turnDeadlineKey(game.getId(), game.getPlayerTwo().getId()));
+    }
+
+    private static String transitionKey(String gameId) {
+        return gameId + ":transition";
+    }
+
+    private static String phaseJobKey(String gameId) {
+        return gameId + ":phase";
     }
 
-    ScenarioTemplate generateTemplate() {
-        long count = scenarioTemplateRepo.count();
-        if (count == 0) {
-            throw new RuntimeException("No templates available");
+    private static String turnDeadlineKey(String gameId, String playerId) {
+        return gameId + ":turn:" + playerId;
+    }
+
+    /**
+     * The engine's copy while the game is held in memory, otherwise the stored one.
+     */
+    private Game loadGame(String gameId) {
+        return gameEngine.find(gameId)
+                .orElseGet(() -> gameRepo.findById(gameId)
+                        .orElseThrow(() -> new RuntimeException("Game not found")));
+    }
+
+    /**
+     * Applies {@code change} in the engine's mailbox while the game is held in
+     * memory, to be written behind; otherwise to a fresh copy of the game in a
+     * short transaction of its own, since the caller may have spent seconds on
+     * LLM calls since it read {@code game}.
+     */
+    private Game applyChange(Game game, Consumer<Game> change) {
+        if (gameEngine.update(game.getId(), change)) {
+            return game;
         }
+        return transactionTemplate.execute(status -> {
+            Game current = gameRepo.findById(game.getId())
+                    .orElseThrow(() -> new RuntimeException("Game not found"));
+            change.accept(current);
+            return gameRepo.save(current);
+        });
+    }
+
+    /**
+     * {@link #applyChange} for a change that first checks it still applies, e.g.
+     * ending a game that may have just ended another way. Empty if it didn't.
+     */
+    private Optional<Game> applyChangeIf(Game game, Predicate<Game> change) {
+        AtomicBoolean applied = new AtomicBoolean();
+        Game changed = applyChange(game, g -> applied.set(change.test(g)));
+        return applied.get() ? Optional.of(changed) : Optional.empty();
+    }
 
-        int randomIndex = random.nextInt((int) count);
-        return scenarioTemplateRepo.findRandomTemplate(randomIndex)
-                .orElseThrow(() -> new RuntimeException("No template found"));
+    /**
+     * The game as players see it: from memory while the engine holds it, since
+     * the row may be behind, otherwise projected straight from its columns.
+     */
+    public GameSnapshot getSnapshot(String gameId) {
+        return gameEngine.find(gameId)
+                .map(GameSnapshot::from)
+                .orElseGet(() -> gameRepo.findSnapshotById(gameId)
+                        .orElseThrow(() -> new RuntimeException("Game not found")));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,171 @@
+package com.backend.promptvprompt.services;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Deadlines for games in progress on a hashed timer wheel. Each timer goes in
+ * the bucket of the tick it is due on, and one thread advances a bucket per
+ * tick, so scheduling and cancelling cost the same with ten games or ten
+ * thousand. A timer fires up to one tick late.
+ *
+ * Timers are keyed: scheduling a key again replaces its pending timer. Due
+ * tasks run on a small pool so a slow one never holds up the wheel.
+ */
+@Component
+public class GameTimers {
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timer>[] wheel;
+    private final long startedAt = System.nanoTime();
+    // Only touched by the wheel thread
+    private long tick;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Queue<Timer> scheduled = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService taskExecutor;
+
+    @SuppressWarnings("unchecked")
+    public GameTimers(@Value("${game.timers.tick-ms:100}") long tickMs,
+            @Value("${game.timers.wheel-size:512}") int wheelSize,
+            @Value("${game.timers.threads:2}") int threads) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        // A power of two, so the bucket is a mask of the tick
+        int size = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.mask = size - 1;
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-timers");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger counter = new AtomicInteger();
+        this.taskExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-timers-task-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs {@code task} once {@code delayMs} has passed, replacing any timer
+     * pending under {@code key}.
+     */
+    public void schedule(String key, long delayMs, Runnable task) {
+        Timer timer = new Timer(key, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(delayMs, 0)), task);
+        Timer replaced = timers.put(key, timer);
+        if (replaced != null) {
+            replaced.cancelled = true;
+        }
+        scheduled.add(timer);
+    }
+
+    public void cancel(String key) {
+        Timer timer = timers.remove(key);
+        if (timer != null) {
+            timer.cancelled = true;
+        }
+    }
+
+    public boolean isPending(String key) {
+        return timers.containsKey(key);
+    }
+
+    public int getPendingCount() {
+        return timers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        taskExecutor.shutdownNow();
+    }
+
+    private void advance() {
+        try {
+            long now = System.nanoTime();
+            long dueTick = (now - startedAt) / tickNanos;
+            // Catch up on ticks missed while the thread was held up
+            while (tick <= dueTick) {
+                placeScheduled();
+                expire(wheel[(int) (tick & mask)]);
+                tick++;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Game timer wheel failed to advance: " + e.getMessage());
+        }
+    }
+
+    private void placeScheduled() {
+        Timer timer;
+        while ((timer = scheduled.poll()) != null) {
+            if (timer.cancelled) {
+                continue;
+            }
+            // Rounded up so a timer never fires early; already due ones go in the current bucket
+            long due = Math.max((timer.deadline - startedAt + tickNanos - 1) / tickNanos, tick);
+            timer.rounds = (due - tick) / wheel.length;
+            wheel[(int) (due & mask)].add(timer);
+        }
+    }
+
+    private void expire(Queue<Timer> bucket) {
+        Iterator<Timer> timersInBucket = bucket.iterator();
+        while (timersInBucket.hasNext()) {
+            Timer timer = timersInBucket.next();
+            if (timer.cancelled) {
+                timersInBucket.remove();
+            } else if (timer.rounds > 0) {
+                timer.rounds--;
+            } else {
+                timersInBucket.remove();
+                if (timers.remove(timer.key, timer)) {
+                    taskExecutor.execute(() -> run(timer));
+                }
+            }
+        }
+    }
+
+    private static void run(Timer timer) {
+        try {
+            timer.task.run();
+        } catch (RuntimeException e) {
+            System.err.println("Game timer " + timer.key + " failed: " + e.getMessage());
+        }
+    }
+
+    private static class Timer {
+        private final String key;
+        private final long deadline;
+        private final Runnable task;
+        private volatile boolean cancelled;
+        // Full turns of the wheel left before it is due; only touched by the wheel thread
+        private long rounds;
+
+        Timer(String key, long deadline, Runnable task) {
+            this.key = key;
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.backend.promptvprompt.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GameEndReason;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.models.User;
+import com.backend.promptvprompt.repos.GameRepo;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes the engine's changes to Postgres off the request path. New turns are
+ * inserted and changed games updated in one transaction per flush, every
+ * flush interval or as soon as a batch fills.
+ *
+ * The turns and games of a failed batch are retried one per transaction, so a
+ * row that can't be written (a turn with no AI response, a duplicate turn)
+ * doesn't hold back the rest. A turn that fails on its own goes to the back of
+ * the queue, and a turn or game that has failed {@code game.engine.max-attempts}
+ * times is dropped with an error log.
+ *
+ * Games are written with a column UPDATE rather than a merge: the in-memory Game
+ * doesn't hold its turns, and merging it would orphan-delete them. The columns
+ * are copied when a change is queued, from inside the game's mailbox, because
+ * the engine keeps changing the Game while the flusher writes.
+ */
+@Component
+public class GameWriteBehind {
+    private final GameRepo gameRepo;
+    private final GameTurnRepo gameTurnRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final ConcurrentLinkedDeque<PendingTurn> pendingTurns = new ConcurrentLinkedDeque<>();
+    // Latest state wins; a game changed twice before a flush is written once
+    private final Map<String, GameState> pendingGames = new ConcurrentHashMap<>();
+    // Games whose last write failed, with how often; they are written one at a time
+    private final Map<String, Integer> gameFailures = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GameWriteBehind(GameRepo gameRepo, GameTurnRepo gameTurnRepo,
+            PlatformTransactionManager transactionManager,
+            @Value("${game.engine.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${game.engine.flush-batch-size:500}") int batchSize,
+            @Value("${game.engine.max-attempts:5}") int maxAttempts) {
+        this.gameRepo = gameRepo;
+        this.gameTurnRepo = gameTurnRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void insert(GameTurn turn) {
+        pendingTurns.add(new PendingTurn(turn, 0));
+        if (pendingTurns.size() >= batchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * The columns of a game as they were when the change was queued.
+     */
+    public record GameState(String gameId, GameStatus status, GamePhase phase, String playerOneDefenseSummary,
+            String playerTwoDefenseSummary, User winner, GameEndReason endReason, Boolean isTransitioning,
+            LocalDateTime transitionEndsAt, Integer playerOneDefenseTurns, Integer playerTwoDefenseTurns,
+            Integer playerOneAttackTurns, Integer playerTwoAttackTurns) {
+
+        static GameState of(Game game) {
+            return new GameState(game.getId(), game.getStatus(), game.getPhase(),
+                    game.getPlayerOneDefenseSummary(), game.getPlayerTwoDefenseSummary(), game.getWinner(),
+                    game.getEndReason(), game.getIsTransitioning(), game.getTransitionEndsAt(),
+                    game.getPlayerOneDefenseTurns(), game.getPlayerTwoDefenseTurns(),
+                    game.getPlayerOneAttackTurns(), game.getPlayerTwoAttackTurns());
+        }
+    }
+
+    /**
+     * Queues the game's current columns to be written. Must be called where
+     * nothing else changes the game at the same time, i.e. in its mailbox.
+     */
+    public void update(Game game) {
+        pendingGames.put(game.getId(), GameState.of(game));
+    }
+
+    public int getPendingCount() {
+        return pendingTurns.size() + pendingGames.size();
+    }
+
+    /**
+     * Writes everything queued so far, a batch per transaction.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            while (!pendingTurns.isEmpty() || !pendingGames.isEmpty()) {
+                flushBatch();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to write game state, retrying: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the next batch of rows that haven't failed, or else the next
+     * failed turn or game on its own.
+     */
+    private void flushBatch() {
+        List<PendingTurn> turns = new ArrayList<>();
+        PendingTurn next;
+        while (turns.size() < batchSize && (next = pendingTurns.peek()) != null && next.failures() == 0) {
+            turns.add(pendingTurns.poll());
+        }
+        Map<String, GameState> games = new LinkedHashMap<>();
+        for (String gameId : List.copyOf(pendingGames.keySet())) {
+            if (gameFailures.containsKey(gameId)) {
+                continue;
+            }
+            GameState game = pendingGames.remove(gameId);
+            if (game != null) {
+                games.put(gameId, game);
+            }
+        }
+
+        if (!turns.isEmpty() || !games.isEmpty()) {
+            try {
+                write(turns, games.values());
+            } catch (RuntimeException e) {
+                // Back in front of anything queued since, in the same order, to be retried one by one
+                for (int i = turns.size() - 1; i >= 0; i--) {
+                    pendingTurns.addFirst(turns.get(i).failed());
+                }
+                games.forEach((gameId, game) -> {
+                    gameFailures.merge(gameId, 1, Integer::sum);
+                    pendingGames.putIfAbsent(gameId, game);
+                });
+                throw e;
+            }
+            return;
+        }
+
+        PendingTurn failedTurn = pendingTurns.poll();
+        if (failedTurn != null) {
+            flushAlone(failedTurn);
+            return;
+        }
+        for (String gameId : List.copyOf(pendingGames.keySet())) {
+            GameState game = pendingGames.remove(gameId);
+            if (game != null) {
+                flushAlone(game);
+                return;
+            }
+        }
+    }
+
+    private void flushAlone(PendingTurn pending) {
+        try {
+            write(List.of(pending), List.of());
+        } catch (RuntimeException e) {
+            PendingTurn failed = pending.failed();
+            if (failed.failures() >= maxAttempts) {
+                GameTurn turn = failed.turn();
+                System.err.println("Dropping turn " + turn.getTurnNumber() + " of player " + turn.getPlayer().getId()
+                        + " in game " + turn.getGame().getId() + " after " + failed.failures()
+                        + " failed attempts: " + e.getMessage());
+                return;
+            }
+            // Behind everything else, so the rest isn't held up by it
+            pendingTurns.addLast(failed);
+            throw e;
+        }
+    }
+
+    private void flushAlone(GameState game) {
+        try {
+            write(List.of(), List.of(game));
+            gameFailures.remove(game.gameId());
+        } catch (RuntimeException e) {
+            int failures = gameFailures.merge(game.gameId(), 1, Integer::sum);
+            if (failures >= maxAttempts) {
+                gameFailures.remove(game.gameId());
+                System.err.println("Dropping state of game " + game.gameId() + " after " + failures
+                        + " failed attempts: " + e.getMessage());
+                return;
+            }
+            // A newer state queued since wins
+            pendingGames.putIfAbsent(game.gameId(), game);
+            throw e;
+        }
+    }
+
+    private void write(List<PendingTurn> turns, Collection<GameState> games) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!turns.isEmpty()) {
+                gameTurnRepo.saveAll(turns.stream().map(PendingTurn::turn).toList());
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (GameState game : games) {
+                gameRepo.updateState(game.gameId(), game.status(), game.phase(),
+                        game.playerOneDefenseSummary(), game.playerTwoDefenseSummary(),
+                        game.winner(), game.endReason(), game.isTransitioning(),
+                        game.transitionEndsAt(), game.playerOneDefenseTurns(),
+                        game.playerTwoDefenseTurns(), game.playerOneAttackTurns(),
+                        game.playerTwoAttackTurns(), now);
+            }
+        });
+    }
+
+    private record PendingTurn(GameTurn turn, int failures) {
+        PendingTurn failed() {
+            return new PendingTurn(turn, failures + 1);
+        }
+    }
+}
@@ -3,11 +3,18 @@ package com.backend.promptvprompt.services;
 import java.time.Instant;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.springframework.stereotype.Service;
+
 import com.backend.promptvprompt.DTO.Matchmaking.Match;
 import com.backend.promptvprompt.DTO.Matchmaking.PlayerQueue;
 
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
 public class MatchmakingService {
     private final ConcurrentLinkedQueue<PlayerQueue> queue = new ConcurrentLinkedQueue<>();
+    private final GameMetrics gameMetrics;
 
     public Match addPlayer(String playerId, String socketId) {
         queue.add(new PlayerQueue(playerId, socketId, Instant.now().toEpochMilli()));
@@ -21,6 +28,9 @@ public class MatchmakingService {
             PlayerQueue playerTwo = queue.poll();
 
             if (playerOne != null && playerTwo != null) {
+                long now = Instant.now().toEpochMilli();
+                gameMetrics.recordMatchmakingWait(now - playerOne.getJoinedAt(), true);
+                gameMetrics.recordMatchmakingWait(now - playerTwo.getJoinedAt(), true);
                 return new Match(playerOne, playerTwo);
             }
         }
@@ -28,7 +38,14 @@ public class MatchmakingService {
     }
 
     public void removePlayer(String playerId) {
-        queue.removeIf(p -> p.getPlayerId().equals(playerId));
+        long now = Instant.now().toEpochMilli();
+        queue.removeIf(p -> {
+            if (!p.getPlayerId().equals(playerId)) {
+                return false;
+            }
+            gameMetrics.recordMatchmakingWait(now - p.getJoinedAt(), false);
+            return true;
+        });
     }
 
     public int getQueueSize() {
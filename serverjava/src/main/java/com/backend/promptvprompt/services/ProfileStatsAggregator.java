@@ -0,0 +1,201 @@
+package com.backend.promptvprompt.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GameStatus;
+import com.backend.promptvprompt.repos.GameStatsRecordRepo;
+import com.backend.promptvprompt.repos.UserProfileRepo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Adds finished games to the players' profile stats off the request path.
+ * Results are collected and applied in one transaction per flush: each game is
+ * first recorded in game_stats_records, and only games recorded by that flush
+ * count, so a game reported twice or a flush retried after a failure is never
+ * counted again. What's left is coalesced per player into a single in-place
+ * UPDATE, in player id order so concurrent flushes can't deadlock.
+ *
+ * The games of a failed batch are retried one per transaction, so a game that
+ * can't be applied doesn't hold back the rest: it goes to the back of the queue
+ * after each failure and is dropped, with an error log, after
+ * {@code game.stats.max-attempts} failures.
+ */
+@Component
+public class ProfileStatsAggregator {
+    private final UserProfileRepo userProfileRepo;
+    private final GameStatsRecordRepo gameStatsRecordRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final ConcurrentLinkedDeque<GameResult> pendingResults = new ConcurrentLinkedDeque<>();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "profile-stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProfileStatsAggregator(UserProfileRepo userProfileRepo, GameStatsRecordRepo gameStatsRecordRepo,
+            PlatformTransactionManager transactionManager,
+            @Value("${game.stats.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${game.stats.flush-batch-size:200}") int batchSize,
+            @Value("${game.stats.max-attempts:5}") int maxAttempts) {
+        this.userProfileRepo = userProfileRepo;
+        this.gameStatsRecordRepo = gameStatsRecordRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues the result of a game that has just ended. Games still in progress,
+     * and games that never had a second player, are ignored.
+     */
+    public void gameEnded(Game game) {
+        if ((game.getStatus() != GameStatus.COMPLETED && game.getStatus() != GameStatus.ABANDONED)
+                || game.getPlayerTwo() == null) {
+            return;
+        }
+        String winnerId = game.getWinner() == null ? null : game.getWinner().getId();
+        pendingResults.add(new GameResult(game.getId(), game.getPlayerOne().getId(),
+                game.getPlayerTwo().getId(), winnerId, 0));
+        if (pendingResults.size() >= batchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    public int getPendingCount() {
+        return pendingResults.size();
+    }
+
+    /**
+     * Applies everything queued so far, a batch per transaction.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            while (!pendingResults.isEmpty()) {
+                flushBatch();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to update profile stats, retrying: " + e.getMessage());
+        }
+    }
+
+    private void flushBatch() {
+        List<GameResult> results = new ArrayList<>();
+        GameResult head = pendingResults.poll();
+        if (head == null) {
+            return;
+        }
+        results.add(head);
+        // A game from a failed batch goes alone; others are batched up to the next such game
+        if (head.failures() == 0) {
+            GameResult next;
+            while (results.size() < batchSize && (next = pendingResults.peek()) != null && next.failures() == 0) {
+                results.add(pendingResults.poll());
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+                LocalDateTime startOfDay = LocalDate.now(ZoneOffset.UTC).atStartOfDay();
+
+                Map<String, StatsDelta> deltas = new TreeMap<>();
+                for (GameResult gameResult : results) {
+                    if (gameStatsRecordRepo.claim(gameResult.gameId(), now) == 0) {
+                        continue;
+                    }
+                    gameResult.addTo(deltas);
+                }
+
+                deltas.forEach((userId, delta) -> {
+                    int updated = userProfileRepo.addStats(userId, delta.games, delta.wins, delta.losses,
+                            delta.draws, startOfDay, now);
+                    if (updated == 0) {
+                        System.err.println("No profile to add game stats to for user " + userId);
+                    }
+                });
+            });
+        } catch (RuntimeException e) {
+            if (head.failures() == 0) {
+                // Back in front of anything queued since, in the same order, to be retried one by one
+                for (int i = results.size() - 1; i >= 0; i--) {
+                    pendingResults.addFirst(results.get(i).failed());
+                }
+                throw e;
+            }
+
+            GameResult failed = head.failed();
+            if (failed.failures() >= maxAttempts) {
+                System.err.println("Dropping profile stats for game " + failed.gameId() + " (players "
+                        + failed.playerOneId() + ", " + failed.playerTwoId() + ") after " + failed.failures()
+                        + " failed attempts: " + e.getMessage());
+                return;
+            }
+            // Behind everything else, so the rest isn't held up by it
+            pendingResults.addLast(failed);
+            throw e;
+        }
+    }
+
+    private record GameResult(String gameId, String playerOneId, String playerTwoId, String winnerId,
+            int failures) {
+        GameResult failed() {
+            return new GameResult(gameId, playerOneId, playerTwoId, winnerId, failures + 1);
+        }
+
+        void addTo(Map<String, StatsDelta> deltas) {
+            for (String playerId : List.of(playerOneId, playerTwoId)) {
+                StatsDelta delta = deltas.computeIfAbsent(playerId, id -> new StatsDelta());
+                delta.games++;
+                if (winnerId == null) {
+                    delta.draws++;
+                } else if (winnerId.equals(playerId)) {
+                    delta.wins++;
+                } else {
+                    delta.losses++;
+                }
+            }
+        }
+    }
+
+    private static class StatsDelta {
+        private int games;
+        private int wins;
+        private int losses;
+        private int draws;
+    }
+}
@@ -0,0 +1,136 @@
+package com.backend.promptvprompt.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.backend.promptvprompt.models.ScenarioTemplate;
+import com.backend.promptvprompt.repos.ScenarioTemplateRepo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * The active scenario templates, held in memory with their roles and passwords
+ * already pulled out of the variables JSON, so picking a scenario for a new game
+ * is a couple of random array lookups instead of a COUNT and an OFFSET scan.
+ *
+ * Templates are loaded when the app is ready and reloaded on an interval, or
+ * right away through {@link #refresh()} after they change. Templates without
+ * roles or passwords are left out.
+ */
+@Component
+public class ScenarioTemplatePool {
+    private final ScenarioTemplateRepo scenarioTemplateRepo;
+
+    // Replaced whole on refresh, never modified
+    private volatile List<PooledTemplate> templates = List.of();
+    private final Object refreshLock = new Object();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scenario-templates");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ScenarioTemplatePool(ScenarioTemplateRepo scenarioTemplateRepo,
+            @Value("${game.templates.refresh-interval-ms:300000}") long refreshIntervalMs) {
+        this.scenarioTemplateRepo = scenarioTemplateRepo;
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A template with a role and a password picked from it, ready to start a game.
+     */
+    public Scenario randomScenario() {
+        PooledTemplate pooled = randomPooled();
+        return new Scenario(pooled.template(), pick(pooled.roles()), pick(pooled.passwords()));
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    /**
+     * Reloads the active templates now.
+     */
+    public void refresh() {
+        synchronized (refreshLock) {
+            List<PooledTemplate> loaded = new ArrayList<>();
+            for (ScenarioTemplate template : scenarioTemplateRepo.findByIsActiveTrue()) {
+                PooledTemplate pooled = parse(template);
+                if (pooled.roles().length == 0 || pooled.passwords().length == 0) {
+                    System.err.println("Skipping scenario template " + template.getName()
+                            + ": it needs at least one role and one password");
+                    continue;
+                }
+                loaded.add(pooled);
+            }
+            templates = List.copyOf(loaded);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        // So the first match doesn't wait on loading the templates
+        refreshQuietly();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private PooledTemplate randomPooled() {
+        if (templates.isEmpty()) {
+            // Not loaded yet, or nothing was active last time: look again before giving up
+            refresh();
+        }
+        List<PooledTemplate> current = templates;
+        if (current.isEmpty()) {
+            throw new RuntimeException("No templates available");
+        }
+        return current.get(ThreadLocalRandom.current().nextInt(current.size()));
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to reload scenario templates, keeping the current ones: " + e.getMessage());
+        }
+    }
+
+    private static String pick(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private static PooledTemplate parse(ScenarioTemplate template) {
+        Map<String, Object> variables = template.getVariables() == null ? Map.of() : template.getVariables();
+        return new PooledTemplate(template, strings(variables.get("role")), strings(variables.get("password")));
+    }
+
+    private static String[] strings(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return new String[0];
+        }
+        return list.stream()
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .toArray(String[]::new);
+    }
+
+    public record Scenario(ScenarioTemplate template, String character, String secret) {
+    }
+
+    private record PooledTemplate(ScenarioTemplate template, String[] roles, String[] passwords) {
+    }
+}
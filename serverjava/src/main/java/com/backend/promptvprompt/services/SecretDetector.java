@@ -0,0 +1,174 @@
+package com.backend.promptvprompt.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import com.backend.promptvprompt.models.GameTurn;
+
+/**
+ * Local first pass of the secret judge. It only ever answers "revealed": a reply
+ * that spells out the secret (in any case, spaced out, with punctuation, in
+ * leetspeak or NATO/number words) settles the verdict without an LLM call.
+ * Anything less obvious returns false and is left to the LLM judge.
+ */
+@Component
+public class SecretDetector {
+    // Shorter secrets match too much ordinary text to be settled locally
+    static final int MIN_SECRET_LENGTH = 3;
+
+    private static final Map<String, Character> SPELLED_OUT = Map.ofEntries(
+            Map.entry("alpha", 'a'), Map.entry("alfa", 'a'), Map.entry("bravo", 'b'),
+            Map.entry("charlie", 'c'), Map.entry("delta", 'd'), Map.entry("echo", 'e'),
+            Map.entry("foxtrot", 'f'), Map.entry("golf", 'g'), Map.entry("hotel", 'h'),
+            Map.entry("india", 'i'), Map.entry("juliet", 'j'), Map.entry("juliett", 'j'),
+            Map.entry("kilo", 'k'), Map.entry("lima", 'l'), Map.entry("mike", 'm'),
+            Map.entry("november", 'n'), Map.entry("oscar", 'o'), Map.entry("papa", 'p'),
+            Map.entry("quebec", 'q'), Map.entry("romeo", 'r'), Map.entry("sierra", 's'),
+            Map.entry("tango", 't'), Map.entry("uniform", 'u'), Map.entry("victor", 'v'),
+            Map.entry("whiskey", 'w'), Map.entry("xray", 'x'), Map.entry("yankee", 'y'),
+            Map.entry("zulu", 'z'),
+            Map.entry("zero", '0'), Map.entry("one", '1'), Map.entry("two", '2'),
+            Map.entry("three", '3'), Map.entry("four", '4'), Map.entry("five", '5'),
+            Map.entry("six", '6'), Map.entry("seven", '7'), Map.entry("eight", '8'),
+            Map.entry("nine", '9'));
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong fastPathHits = new AtomicLong();
+
+    /**
+     * @return true when an AI reply in {@code attackTurns} plainly contains the secret
+     */
+    public boolean isObviouslyRevealed(String secret, List<GameTurn> attackTurns) {
+        checks.incrementAndGet();
+
+        Normalized normalizedSecret = normalize(secret);
+        if (normalizedSecret.text().length() < MIN_SECRET_LENGTH) {
+            return false;
+        }
+
+        // Forwards only: the secret spelled backwards is often an ordinary word
+        // ("stressed"/"desserts"), so that is left to the LLM judge
+        String pattern = normalizedSecret.text();
+        for (GameTurn turn : attackTurns) {
+            if (turn.getAiResponse() != null && matchesWholeWords(pattern, normalize(turn.getAiResponse()))) {
+                fastPathHits.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getChecks() {
+        return checks.get();
+    }
+
+    public long getFastPathHits() {
+        return fastPathHits.get();
+    }
+
+    public double getHitRate() {
+        long total = checks.get();
+        return total == 0 ? 0.0 : (double) fastPathHits.get() / total;
+    }
+
+    /**
+     * Text reduced to lowercase alphanumerics with separators removed, plus a mark on
+     * every position where a word started, so matches can be held to word boundaries.
+     */
+    static Normalized normalize(String input) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (char c : input.toLowerCase().toCharArray()) {
+            if (Character.isLetterOrDigit(c) || isLeetSymbol(c)) {
+                current.append(c);
+            } else {
+                addToken(tokens, current);
+            }
+        }
+        addToken(tokens, current);
+
+        StringBuilder text = new StringBuilder();
+        List<Integer> wordStarts = new ArrayList<>();
+        for (String token : tokens) {
+            Character spelled = SPELLED_OUT.get(token);
+            String word = spelled != null ? String.valueOf(spelled) : token;
+
+            int start = text.length();
+            for (char c : word.toCharArray()) {
+                char mapped = fold(c);
+                if (mapped != 0) {
+                    text.append(mapped);
+                }
+            }
+            if (text.length() > start) {
+                wordStarts.add(start);
+            }
+        }
+
+        boolean[] boundaries = new boolean[text.length() + 1];
+        for (int start : wordStarts) {
+            boundaries[start] = true;
+        }
+        boundaries[text.length()] = true;
+        return new Normalized(text.toString(), boundaries);
+    }
+
+    /**
+     * Trailing symbols are punctuation ("42!"), not leetspeak, so they are dropped.
+     */
+    private static void addToken(List<String> tokens, StringBuilder current) {
+        int end = current.length();
+        while (end > 0 && !Character.isLetterOrDigit(current.charAt(end - 1))) {
+            end--;
+        }
+        if (end > 0) {
+            tokens.add(current.substring(0, end));
+        }
+        current.setLength(0);
+    }
+
+    private static boolean isLeetSymbol(char c) {
+        return c == '@' || c == '$' || c == '!' || c == '|' || c == '+';
+    }
+
+    /**
+     * Collapses characters that are commonly swapped for each other into one
+     * representative. Returns 0 for characters that carry no information.
+     */
+    private static char fold(char c) {
+        return switch (c) {
+            case '0' -> 'o';
+            case '1', 'l', '!', '|' -> 'i';
+            case '3' -> 'e';
+            case '4', '@' -> 'a';
+            case '5', '$' -> 's';
+            case '7', '+' -> 't';
+            case '8' -> 'b';
+            case '9' -> 'g';
+            default -> (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') ? c : 0;
+        };
+    }
+
+    /**
+     * Whether {@code pattern} occurs in the text starting and ending on word
+     * boundaries, so "heap" isn't found in "the apple".
+     */
+    static boolean matchesWholeWords(String pattern, Normalized normalized) {
+        String text = normalized.text();
+        int start = text.indexOf(pattern);
+        while (start >= 0) {
+            if (normalized.boundaries()[start] && normalized.boundaries()[start + pattern.length()]) {
+                return true;
+            }
+            start = text.indexOf(pattern, start + 1);
+        }
+        return false;
+    }
+
+    record Normalized(String text, boolean[] boundaries) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.backend.promptvprompt.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+/**
+ * Conversation history per (game, player, phase), kept in memory so building a
+ * prompt doesn't query and re-map every previous turn. Each transcript holds at
+ * most maxTurnsPerPhase exchanges. A transcript that isn't cached (e.g. after a
+ * restart) is loaded from the database the first time it is needed.
+ *
+ * A transcript can also carry a rolling summary of its oldest exchanges, used
+ * once the full history no longer fits the prompt budget.
+ */
+@Component
+public class TranscriptStore {
+    private final GameTurnRepo gameTurnRepo;
+    private final Map<String, GameTranscripts> games;
+
+    public TranscriptStore(GameTurnRepo gameTurnRepo,
+            @Value("${game.transcripts.max-games:10000}") int maxGames) {
+        this.gameTurnRepo = gameTurnRepo;
+        // Access-ordered, so games nobody plays any more are dropped first
+        this.games = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GameTranscripts> eldest) {
+                return size() > maxGames;
+            }
+        });
+    }
+
+    public record Exchange(String playerMessage, String aiResponse) {
+    }
+
+    /**
+     * A condensed form of the first {@code coveredExchanges} exchanges of a transcript.
+     */
+    public record RollingSummary(String text, int coveredExchanges) {
+    }
+
+    /**
+     * Exchanges so far, oldest first.
+     */
+    public List<Exchange> history(String gameId, String playerId, GamePhase phase, int maxTurns) {
+        Transcript transcript = transcript(gameId, playerId, phase, maxTurns);
+        synchronized (transcript) {
+            return transcript.snapshot();
+        }
+    }
+
+    /**
+     * Records a saved turn. Inside a transaction this waits for the commit, so a
+     * rolled-back turn never shows up in later prompts.
+     */
+    public void append(GameTurn turn, String gameId, String playerId, int maxTurns) {
+        Runnable append = () -> {
+            Transcript transcript = transcript(gameId, playerId, turn.getPhase(), maxTurns);
+            synchronized (transcript) {
+                transcript.put(turn.getTurnNumber(), new Exchange(turn.getPlayerMessage(), turn.getAiResponse()));
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append.run();
+                }
+            });
+        } else {
+            append.run();
+        }
+    }
+
+    public Optional<RollingSummary> rollingSummary(String gameId, String playerId, GamePhase phase, int maxTurns) {
+        Transcript transcript = transcript(gameId, playerId, phase, maxTurns);
+        synchronized (transcript) {
+            return Optional.ofNullable(transcript.summary);
+        }
+    }
+
+    /**
+     * Keeps the summary unless the stored one already covers more of the transcript.
+     */
+    public void updateRollingSummary(String gameId, String playerId, GamePhase phase, int maxTurns,
+            RollingSummary summary) {
+        Transcript transcript = transcript(gameId, playerId, phase, maxTurns);
+        synchronized (transcript) {
+            if (transcript.summary == null || transcript.summary.coveredExchanges() < summary.coveredExchanges()) {
+                transcript.summary = summary;
+            }
+        }
+    }
+
+    public void evict(String gameId) {
+        games.remove(gameId);
+    }
+
+    private Transcript transcript(String gameId, String playerId, GamePhase phase, int maxTurns) {
+        GameTranscripts gameTranscripts = games.computeIfAbsent(gameId, id -> new GameTranscripts());
+        synchronized (gameTranscripts) {
+            Map<GamePhase, Transcript> byPhase = gameTranscripts.byPlayer
+                    .computeIfAbsent(playerId, id -> new EnumMap<>(GamePhase.class));
+            Transcript transcript = byPhase.get(phase);
+            if (transcript == null) {
+                transcript = new Transcript(maxTurns);
+                for (GameTurn turn : gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(
+                        gameId, playerId, phase)) {
+                    transcript.put(turn.getTurnNumber(), new Exchange(turn.getPlayerMessage(), turn.getAiResponse()));
+                }
+                byPhase.put(phase, transcript);
+            }
+            return transcript;
+        }
+    }
+
+    private static class GameTranscripts {
+        private final Map<String, Map<GamePhase, Transcript>> byPlayer = new HashMap<>(2);
+    }
+
+    /**
+     * Exchanges indexed by turn number, so a turn recorded twice (lazy load racing
+     * an append) lands in the same slot.
+     */
+    private static class Transcript {
+        private final Exchange[] exchanges;
+        private int size;
+        // Not persisted: after a restart long histories are truncated until re-summarized
+        private RollingSummary summary;
+
+        Transcript(int maxTurns) {
+            this.exchanges = new Exchange[maxTurns];
+        }
+
+        void put(int turnNumber, Exchange exchange) {
+            int index = turnNumber - 1;
+            if (index < 0 || index >= exchanges.length) {
+                return;
+            }
+            exchanges[index] = exchange;
+            size = Math.max(size, turnNumber);
+        }
+
+        List<Exchange> snapshot() {
+            List<Exchange> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                if (exchanges[i] != null) {
+                    result.add(exchanges[i]);
+                }
+            }
+            return result;
+        }
+    }
+}
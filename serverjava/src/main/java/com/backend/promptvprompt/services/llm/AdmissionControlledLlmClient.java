@@ -0,0 +1,294 @@
+package com.backend.promptvprompt.services.llm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.backend.promptvprompt.exceptions.LlmException;
+import com.backend.promptvprompt.exceptions.LlmRejectedException;
+import com.backend.promptvprompt.services.GameMetrics;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Admission layer in front of the provider. A call is started only when it fits
+ * the requests/minute and tokens/minute budgets and the adaptive concurrency
+ * limit; otherwise it waits in a queue where in-game replies go before
+ * summaries, summaries before judging, and judging before background history
+ * summaries. A call that waits past its deadline
+ * fails instead of adding to the backlog.
+ *
+ * The concurrency limit is AIMD: it grows by one per limit's worth of successful
+ * calls and is cut when the provider throttles (429) or a call times out.
+ *
+ * Queue wait and provider latency are timed here per call type, so retries and
+ * hedges each count as a call of their own.
+ */
+@Component("admittedLlmClient")
+public class AdmissionControlledLlmClient implements LlmClient {
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final long TICK_MS = 50;
+
+    private final LlmClient delegate;
+    private final GameMetrics gameMetrics;
+    private final TokenBucket requestBudget;
+    private final TokenBucket tokenBudget;
+    private final double minConcurrency;
+    private final double maxConcurrency;
+    private final int maxQueueSize;
+    private final long maxQueueWaitMs;
+
+    private final PriorityQueue<Pending> queue = new PriorityQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "llm-admission");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private double concurrencyLimit;
+    private int inFlight;
+
+    public AdmissionControlledLlmClient(@Qualifier("llmProvider") LlmClient delegate,
+            GameMetrics gameMetrics,
+            @Value("${llm.admission.requests-per-minute:500}") long requestsPerMinute,
+            @Value("${llm.admission.tokens-per-minute:200000}") long tokensPerMinute,
+            @Value("${llm.admission.initial-concurrency:16}") int initialConcurrency,
+            @Value("${llm.admission.min-concurrency:2}") int minConcurrency,
+            @Value("${llm.admission.max-concurrency:128}") int maxConcurrency,
+            @Value("${llm.admission.max-queue-size:1000}") int maxQueueSize,
+            @Value("${llm.admission.max-queue-wait-ms:10000}") long maxQueueWaitMs) {
+        this.delegate = delegate;
+        this.gameMetrics = gameMetrics;
+        this.requestBudget = new TokenBucket(requestsPerMinute);
+        this.tokenBudget = new TokenBucket(tokensPerMinute);
+        this.concurrencyLimit = initialConcurrency;
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitMs = maxQueueWaitMs;
+
+        // Budgets refill and deadlines pass without any call finishing
+        ticker.scheduleWithFixedDelay(this::dispatch, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String getModel() {
+        return delegate.getModel();
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> complete(LlmRequest request) {
+        return admitThen(request, () -> delegate.complete(request));
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> stream(LlmRequest request, Consumer<String> onDelta) {
+        return admitThen(request, () -> delegate.stream(request, onDelta));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    public synchronized int getQueueDepth(LlmCallType callType) {
+        return (int) queue.stream().filter(pending -> pending.callType == callType).count();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getConcurrencyLimit() {
+        return (int) concurrencyLimit;
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * The prompt as counted locally; the completion is charged at its max_tokens
+     * ceiling.
+     */
+    static long estimateTokens(LlmRequest request) {
+        long maxTokens = request.getMaxTokens() == null ? 0 : request.getMaxTokens();
+        return TokenCounter.count(request.getMessages()) + maxTokens;
+    }
+
+    private CompletableFuture<LlmResponse> admitThen(LlmRequest request,
+            Supplier<CompletableFuture<LlmResponse>> call) {
+        long enqueuedAt = System.nanoTime();
+        Pending pending = new Pending(request.getCallType(), estimateTokens(request),
+                enqueuedAt + TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs), sequence.getAndIncrement());
+
+        synchronized (this) {
+            if (queue.size() >= maxQueueSize) {
+                rejected.incrementAndGet();
+                return CompletableFuture.failedFuture(new LlmRejectedException("LLM admission queue is full"));
+            }
+            queue.add(pending);
+        }
+        dispatch();
+
+        return pending.admitted.thenCompose(admittedAt -> {
+            gameMetrics.recordLlmQueueWait(request.getCallType(), admittedAt - enqueuedAt);
+            CompletableFuture<LlmResponse> response;
+            try {
+                response = call.get();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            return response.whenComplete((result, ex) -> {
+                gameMetrics.recordLlmCall(request.getCallType(), System.nanoTime() - admittedAt, ex);
+                release(ex);
+            });
+        });
+    }
+
+    private void dispatch() {
+        List<Pending> admitted = new ArrayList<>();
+        List<Pending> expired = new ArrayList<>();
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            requestBudget.refill(now);
+            tokenBudget.refill(now);
+
+            // Every waiter past its deadline, not just the head: lower-priority calls
+            // behind a head that is waiting for capacity expire too
+            queue.removeIf(pending -> {
+                if (now - pending.deadline > 0) {
+                    expired.add(pending);
+                    return true;
+                }
+                return false;
+            });
+
+            while (!queue.isEmpty()) {
+                Pending head = queue.peek();
+                if (inFlight >= (int) concurrencyLimit
+                        || !requestBudget.canTake(1)
+                        || !tokenBudget.canTake(head.tokens)) {
+                    break;
+                }
+                requestBudget.take(1);
+                tokenBudget.take(head.tokens);
+                inFlight++;
+                admitted.add(queue.poll());
+            }
+        }
+
+        // Completed outside the lock: callers' continuations start the calls
+        for (Pending pending : expired) {
+            rejected.incrementAndGet();
+            pending.admitted.completeExceptionally(
+                    new LlmRejectedException("Timed out waiting for LLM capacity"));
+        }
+        for (Pending pending : admitted) {
+            pending.admitted.complete(System.nanoTime());
+        }
+    }
+
+    private void release(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        // Only the provider pushing back shrinks the limit; bad replies and parse errors don't
+        boolean overloaded = cause instanceof LlmException llmException
+                && (llmException.isThrottled() || llmException.isTimeout());
+
+        synchronized (this) {
+            inFlight--;
+            if (overloaded) {
+                concurrencyLimit = Math.max(minConcurrency, concurrencyLimit * DECREASE_FACTOR);
+            } else if (cause == null) {
+                concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1 / concurrencyLimit);
+            }
+        }
+        dispatch();
+    }
+
+    private static int priority(LlmCallType callType) {
+        if (callType == null) {
+            return Integer.MAX_VALUE;
+        }
+        return switch (callType) {
+            case RESPONSE -> 0;
+            case DEFENSE_SUMMARY -> 1;
+            case SECRET_JUDGE -> 2;
+            case HISTORY_SUMMARY -> 3;
+        };
+    }
+
+    private static class Pending implements Comparable<Pending> {
+        private final LlmCallType callType;
+        private final long tokens;
+        private final long deadline;
+        private final long sequence;
+        private final CompletableFuture<Long> admitted = new CompletableFuture<>();
+
+        Pending(LlmCallType callType, long tokens, long deadline, long sequence) {
+            this.callType = callType;
+            this.tokens = tokens;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Pending other) {
+            int byPriority = Integer.compare(priority(callType), priority(other.callType));
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * A per-minute budget refilled continuously. Not thread-safe; used under the
+     * client's lock.
+     */
+    static class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double available;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(long perMinute) {
+            this.capacity = perMinute;
+            this.refillPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.available = perMinute;
+        }
+
+        void refill(long now) {
+            available = Math.min(capacity, available + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+
+        boolean canTake(long amount) {
+            // A single call larger than the whole budget waits for a full bucket
+            return available >= Math.min(amount, capacity);
+        }
+
+        void take(long amount) {
+            available -= Math.min(amount, capacity);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.backend.promptvprompt.services.llm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.backend.promptvprompt.models.LlmCacheEntry;
+import com.backend.promptvprompt.repos.LlmCacheEntryRepo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Caches defense summaries, judge verdicts and history summaries by a SHA-256
+ * of the model and the whole request, so re-running the same transcript (a
+ * retried transition, a replayed game end) doesn't cost another call. Identical requests in flight at
+ * the same time share one call. In-game replies are never cached.
+ *
+ * Entries live in memory, least recently used first out, bounded by count and
+ * approximate size, and expire after the TTL. With persistence on, misses fall
+ * back to the llm_cache_entries table and new results are written through,
+ * both on a small executor of their own.
+ */
+@Component
+@Primary
+public class CachingLlmClient implements LlmClient {
+    // Object headers, map node and key string
+    private static final long ENTRY_OVERHEAD_BYTES = 200;
+
+    private final LlmClient delegate;
+    private final LlmCacheEntryRepo llmCacheEntryRepo;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlMs;
+    private final boolean persistent;
+
+    // Access-ordered, guarded by itself
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<LlmResponse>> inFlight = new ConcurrentHashMap<>();
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Table reads and writes, kept off the caller's thread and the HTTP client's
+    private final ExecutorService storeExecutor;
+
+    public CachingLlmClient(@Qualifier("resilientLlmClient") LlmClient delegate,
+            LlmCacheEntryRepo llmCacheEntryRepo,
+            @Value("${llm.cache.enabled:true}") boolean enabled,
+            @Value("${llm.cache.max-entries:10000}") int maxEntries,
+            @Value("${llm.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${llm.cache.ttl-ms:86400000}") long ttlMs,
+            @Value("${llm.cache.persistent:false}") boolean persistent,
+            @Value("${llm.cache.store-threads:2}") int storeThreads) {
+        this.delegate = delegate;
+        this.llmCacheEntryRepo = llmCacheEntryRepo;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMs = ttlMs;
+        this.persistent = persistent;
+        this.storeExecutor = Executors.newFixedThreadPool(storeThreads, runnable -> {
+            Thread thread = new Thread(runnable, "llm-cache-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String getModel() {
+        return delegate.getModel();
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> complete(LlmRequest request) {
+        if (!enabled || !isCacheable(request)) {
+            return delegate.complete(request);
+        }
+
+        String key = cacheKey(delegate.getModel(), request);
+        LlmResponse cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<LlmResponse> call = new CompletableFuture<>();
+        CompletableFuture<LlmResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            misses.incrementAndGet();
+            // Only the caller that made the call reports its usage
+            return existing.thenApply(CachingLlmClient::withoutUsage);
+        }
+
+        findStored(key)
+                .thenCompose(stored -> {
+                    if (stored != null) {
+                        hits.incrementAndGet();
+                        return CompletableFuture.completedFuture(stored);
+                    }
+                    misses.incrementAndGet();
+                    return callThrough(key, request);
+                })
+                .whenComplete((result, ex) -> {
+                    inFlight.remove(key, call);
+                    if (ex == null) {
+                        call.complete(result);
+                    } else {
+                        call.completeExceptionally(ex);
+                    }
+                });
+        // A caller cancelling its copy doesn't cancel the call for the others
+        return call.copy();
+    }
+
+    private CompletableFuture<LlmResponse> callThrough(String key, LlmRequest request) {
+        CompletableFuture<LlmResponse> response;
+        try {
+            response = delegate.complete(request);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        // Remembered before the call completes, so the next caller finds it in memory
+        return response.whenComplete((result, ex) -> {
+            if (ex == null) {
+                store(key, request, result);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> stream(LlmRequest request, Consumer<String> onDelta) {
+        return delegate.stream(request, onDelta);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        storeExecutor.shutdown();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getEstimatedBytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    static boolean isCacheable(LlmRequest request) {
+        return request.getCallType() == LlmCallType.DEFENSE_SUMMARY
+                || request.getCallType() == LlmCallType.SECRET_JUDGE
+                || request.getCallType() == LlmCallType.HISTORY_SUMMARY;
+    }
+
+    private static LlmResponse withoutUsage(LlmResponse response) {
+        return new LlmResponse(response.getContent(), response.getFinishReason());
+    }
+
+    /**
+     * Every field that shapes the reply, each length-prefixed so no two requests
+     * share an encoding.
+     */
+    static String cacheKey(String model, LlmRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, model);
+            update(digest, String.valueOf(request.getCallType()));
+            update(digest, String.valueOf(request.getTemperature()));
+            update(digest, String.valueOf(request.getMaxTokens()));
+            update(digest, String.valueOf(request.isJsonResponse()));
+            if (request.getMessages() != null) {
+                for (LlmMessage message : request.getMessages()) {
+                    update(digest, message.getRole());
+                    update(digest, message.getContent());
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private LlmResponse lookup(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null) {
+                if (now - cached.createdAtMs < ttlMs) {
+                    return cached.response;
+                }
+                remove(key);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a persisted entry on the store executor; completes with null when
+     * there is none, it has expired or persistence is off.
+     */
+    private CompletableFuture<LlmResponse> findStored(String key) {
+        if (!persistent) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> readStored(key), storeExecutor);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private LlmResponse readStored(String key) {
+        long now = System.currentTimeMillis();
+        try {
+            Optional<LlmCacheEntry> stored = llmCacheEntryRepo.findById(key);
+            if (stored.isEmpty()) {
+                return null;
+            }
+            long createdAtMs = stored.get().getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            if (now - createdAtMs >= ttlMs) {
+                return null;
+            }
+            LlmResponse response = new LlmResponse(stored.get().getContent(), stored.get().getFinishReason());
+            remember(key, new CachedResponse(response, createdAtMs));
+            return response;
+        } catch (RuntimeException e) {
+            // The cache is an optimisation; a database problem just means a miss
+            System.err.println("Failed to read LLM cache entry: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String key, LlmRequest request, LlmResponse response) {
+        long now = System.currentTimeMillis();
+        remember(key, new CachedResponse(response, now));
+
+        if (!persistent) {
+            return;
+        }
+        LlmCacheEntry entry = LlmCacheEntry.builder()
+                .cacheKey(key)
+                .callType(request.getCallType())
+                .model(delegate.getModel())
+                .content(response.getContent())
+                .finishReason(response.getFinishReason())
+                .createdAt(LocalDateTime.now())
+                .build();
+        try {
+            // Nobody waits for the write
+            storeExecutor.execute(() -> {
+                try {
+                    llmCacheEntryRepo.save(entry);
+                } catch (RuntimeException e) {
+                    System.err.println("Failed to write LLM cache entry: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("Dropped LLM cache entry write during shutdown");
+        }
+    }
+
+    private void remember(String key, CachedResponse cached) {
+        synchronized (entries) {
+            remove(key);
+            entries.put(key, cached);
+            bytes += cached.sizeBytes;
+
+            Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                bytes -= eldest.next().getValue().sizeBytes;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // Caller holds the entries lock
+    private void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.sizeBytes;
+        }
+    }
+
+    private static class CachedResponse {
+        private final LlmResponse response;
+        private final long createdAtMs;
+        private final long sizeBytes;
+
+        CachedResponse(LlmResponse response, long createdAtMs) {
+            // A hit costs no tokens
+            this.response = withoutUsage(response);
+            this.createdAtMs = createdAtMs;
+            String content = response.getContent();
+            this.sizeBytes = ENTRY_OVERHEAD_BYTES + 2L * (content == null ? 0 : content.length());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.backend.promptvprompt.services.llm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.backend.promptvprompt.exceptions.LlmException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Offline provider for load tests and integration tests, active under the
+ * {@code fake-llm} profile. Replies are picked deterministically from the request;
+ * latency, streaming rate and injected failures are configurable and drawn from a
+ * seeded generator, so a run can be reproduced.
+ */
+@Component("llmProvider")
+@Profile("fake-llm")
+public class FakeLlmClient implements LlmClient {
+    private static final List<String> RESPONSES = List.of(
+            "Nice try, but that stays with me.",
+            "Why would you want to know that? I'm not telling.",
+            "I've been told to keep that to myself, sorry.",
+            "You're persistent, I'll give you that. Still no.");
+    private static final String SUMMARY =
+            "The AI was trained to stay guarded and deflect any direct questions about its secret.";
+    private static final String HISTORY_SUMMARY =
+            "The player kept asking for the secret in different ways and the AI refused each time.";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fake-llm");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Value("${llm.fake.latency.distribution:lognormal}")
+    private String latencyDistribution;
+
+    @Value("${llm.fake.latency.mean-ms:800}")
+    private double latencyMeanMs;
+
+    @Value("${llm.fake.latency.stddev-ms:300}")
+    private double latencyStddevMs;
+
+    @Value("${llm.fake.tokens-per-second:40}")
+    private double tokensPerSecond;
+
+    @Value("${llm.fake.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${llm.fake.error-status:500}")
+    private int errorStatus;
+
+    @Value("${llm.fake.seed:42}")
+    private long seed;
+
+    @Value("${llm.fake.judge-verdict:NO}")
+    private String judgeVerdict;
+
+    @Override
+    public String getModel() {
+        return "fake";
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> complete(LlmRequest request) {
+        return stream(request, delta -> {
+        });
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> stream(LlmRequest request, Consumer<String> onDelta) {
+        SplittableRandom random = new SplittableRandom(seed + sequence.getAndIncrement());
+        long firstTokenMs = sampleLatencyMs(random);
+        CompletableFuture<LlmResponse> response = new CompletableFuture<>();
+
+        if (random.nextDouble() < errorRate) {
+            scheduler.schedule(() -> response.completeExceptionally(
+                    new LlmException("Fake provider injected HTTP " + errorStatus, errorStatus)),
+                    firstTokenMs, TimeUnit.MILLISECONDS);
+            return response;
+        }
+
+        String content = replyFor(request);
+        List<String> tokens = tokenize(content);
+        long tokenIntervalMs = tokensPerSecond > 0 ? Math.round(1000 / tokensPerSecond) : 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            scheduler.schedule(() -> onDelta.accept(token), firstTokenMs + i * tokenIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+        LlmResponse reply = new LlmResponse(content, "stop",
+                TokenCounter.count(request.getMessages()), TokenCounter.count(content));
+        scheduler.schedule(() -> response.complete(reply),
+                firstTokenMs + Math.max(0, tokens.size() - 1) * tokenIntervalMs, TimeUnit.MILLISECONDS);
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private String replyFor(LlmRequest request) {
+        return switch (request.getCallType()) {
+            case DEFENSE_SUMMARY -> SUMMARY;
+            case HISTORY_SUMMARY -> HISTORY_SUMMARY;
+            case SECRET_JUDGE -> request.isJsonResponse()
+                    ? String.format("{\"A\": \"%s\", \"B\": \"%s\"}", judgeVerdict, judgeVerdict)
+                    : judgeVerdict;
+            default -> {
+                List<LlmMessage> messages = request.getMessages();
+                String last = messages.isEmpty() ? "" : messages.get(messages.size() - 1).getContent();
+                yield RESPONSES.get(Math.floorMod(last.hashCode(), RESPONSES.size()));
+            }
+        };
+    }
+
+    private long sampleLatencyMs(SplittableRandom random) {
+        double latency = switch (latencyDistribution) {
+            case "fixed" -> latencyMeanMs;
+            case "uniform" -> latencyMeanMs - latencyStddevMs
+                    + random.nextDouble() * 2 * latencyStddevMs;
+            case "normal" -> latencyMeanMs + gaussian(random) * latencyStddevMs;
+            default -> {
+                // Log-normal with the configured mean and standard deviation: a long right tail
+                double variance = Math.log(1 + (latencyStddevMs * latencyStddevMs) / (latencyMeanMs * latencyMeanMs));
+                double mu = Math.log(latencyMeanMs) - variance / 2;
+                yield Math.exp(mu + Math.sqrt(variance) * gaussian(random));
+            }
+        };
+        return Math.max(0, Math.round(latency));
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    /**
+     * Words with their trailing space, roughly the granularity of provider deltas.
+     */
+    private static List<String> tokenize(String content) {
+        List<String> tokens = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= content.length(); i++) {
+            if (i == content.length() || content.charAt(i - 1) == ' ') {
+                tokens.add(content.substring(start, i));
+                start = i;
+            }
+        }
+        return tokens;
+    }
+}
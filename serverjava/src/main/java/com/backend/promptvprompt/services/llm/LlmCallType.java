@@ -0,0 +1,10 @@
+package com.backend.promptvprompt.services.llm;
+
+public enum LlmCallType {
+    // In-game reply to a player's turn
+    RESPONSE,
+    DEFENSE_SUMMARY,
+    SECRET_JUDGE,
+    // Rolling summary of turns that no longer fit the prompt budget
+    HISTORY_SUMMARY
+}
@@ -0,0 +1,25 @@
+package com.backend.promptvprompt.services.llm;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A chat completion provider. Implementations must not block the caller: both
+ * methods return immediately and complete the future when the provider answers.
+ * Failures complete the future with an {@link com.backend.promptvprompt.exceptions.LlmException}.
+ */
+public interface LlmClient {
+
+    /**
+     * Model name sent to the provider.
+     */
+    String getModel();
+
+    CompletableFuture<LlmResponse> complete(LlmRequest request);
+
+    /**
+     * Like {@link #complete}, but hands each content delta to {@code onDelta} as it
+     * arrives. The returned response carries the assembled content.
+     */
+    CompletableFuture<LlmResponse> stream(LlmRequest request, Consumer<String> onDelta);
+}
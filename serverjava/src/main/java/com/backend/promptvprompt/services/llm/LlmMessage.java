@@ -0,0 +1,13 @@
+package com.backend.promptvprompt.services.llm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmMessage {
+    private String role;
+    private String content;
+}
@@ -0,0 +1,21 @@
+package com.backend.promptvprompt.services.llm;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LlmRequest {
+    private LlmCallType callType;
+    private List<LlmMessage> messages;
+    private Double temperature;
+    private Integer maxTokens;
+    // Ask the provider for a JSON object reply
+    private boolean jsonResponse;
+}
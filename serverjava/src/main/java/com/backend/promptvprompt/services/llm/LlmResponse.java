@@ -0,0 +1,20 @@
+package com.backend.promptvprompt.services.llm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmResponse {
+    private String content;
+    private String finishReason;
+    // Token usage reported by the provider; null when unknown or served from cache
+    private Integer promptTokens;
+    private Integer completionTokens;
+
+    public LlmResponse(String content, String finishReason) {
+        this(content, finishReason, null, null);
+    }
+}
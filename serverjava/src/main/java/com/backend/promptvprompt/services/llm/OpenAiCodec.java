@@ -0,0 +1,111 @@
+package com.backend.promptvprompt.services.llm;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Data;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+
+/**
+ * JSON for the chat completions API. Request bodies are written straight to UTF-8
+ * bytes and responses read straight from them, so a prompt is never held as an
+ * intermediate String; readers and writers are resolved once per type.
+ */
+final class OpenAiCodec {
+    private static final Map<String, String> JSON_OBJECT = Map.of("type", "json_object");
+    // Ask for a final chunk carrying the token usage of a streamed reply
+    private static final Map<String, Boolean> INCLUDE_USAGE = Map.of("include_usage", true);
+
+    private final ObjectWriter requestWriter;
+    private final ObjectReader responseReader;
+    private final ObjectReader chunkReader;
+
+    OpenAiCodec(ObjectMapper objectMapper) {
+        this.requestWriter = objectMapper.writerFor(OpenAIRequest.class);
+        this.responseReader = objectMapper.readerFor(OpenAIResponse.class);
+        this.chunkReader = objectMapper.readerFor(OpenAIStreamChunk.class);
+    }
+
+    byte[] encodeRequest(String model, LlmRequest request, boolean stream) {
+        return requestWriter.writeValueAsBytes(OpenAIRequest.builder()
+                .model(model)
+                .messages(request.getMessages())
+                .temperature(request.getTemperature())
+                .maxTokens(request.getMaxTokens())
+                .stream(stream ? Boolean.TRUE : null)
+                .streamOptions(stream ? INCLUDE_USAGE : null)
+                .responseFormat(request.isJsonResponse() ? JSON_OBJECT : null)
+                .build());
+    }
+
+    LlmResponse decodeResponse(byte[] body) {
+        OpenAIResponse response = responseReader.readValue(body);
+        Choice choice = response.getChoices().get(0);
+        Usage usage = response.getUsage();
+        return new LlmResponse(choice.getMessage().getContent(), choice.getFinishReason(),
+                usage == null ? null : usage.getPromptTokens(),
+                usage == null ? null : usage.getCompletionTokens());
+    }
+
+    OpenAIStreamChunk decodeChunk(String data) {
+        return chunkReader.readValue(data);
+    }
+
+    // Classes for OpenAI API request/response
+    @Data
+    @lombok.Builder
+    static class OpenAIRequest {
+        private String model;
+        private List<LlmMessage> messages;
+        private Double temperature;
+        @JsonProperty("max_tokens")
+        private Integer maxTokens;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Boolean stream;
+        @JsonProperty("stream_options")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Map<String, Boolean> streamOptions;
+        @JsonProperty("response_format")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Map<String, String> responseFormat;
+    }
+
+    @Data
+    static class OpenAIResponse {
+        private List<Choice> choices;
+        private Usage usage;
+    }
+
+    @Data
+    static class Usage {
+        @JsonProperty("prompt_tokens")
+        private Integer promptTokens;
+        @JsonProperty("completion_tokens")
+        private Integer completionTokens;
+    }
+
+    @Data
+    static class Choice {
+        private LlmMessage message;
+        @JsonProperty("finish_reason")
+        private String finishReason;
+    }
+
+    @Data
+    static class OpenAIStreamChunk {
+        private List<StreamChoice> choices;
+        private Usage usage;
+    }
+
+    @Data
+    static class StreamChoice {
+        private LlmMessage delta;
+        @JsonProperty("finish_reason")
+        private String finishReason;
+    }
+}
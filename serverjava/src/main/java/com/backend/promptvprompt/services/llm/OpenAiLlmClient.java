@@ -0,0 +1,210 @@
+package com.backend.promptvprompt.services.llm;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.backend.promptvprompt.exceptions.LlmException;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * OpenAI chat completions over the shared non-blocking HTTP client, with JSON
+ * handled by {@link OpenAiCodec} on the application's ObjectMapper.
+ */
+@Component("llmProvider")
+@Profile("!fake-llm")
+public class OpenAiLlmClient implements LlmClient {
+    private final HttpClient openAiHttpClient;
+    private final OpenAiCodec codec;
+    private final String apiUrl;
+    private final String apiKey;
+    private final String model;
+    private final long requestTimeoutMs;
+
+    public OpenAiLlmClient(HttpClient openAiHttpClient, ObjectMapper objectMapper,
+            @Value("${openai.api.url:https://api.openai.com/v1/chat/completions}") String apiUrl,
+            @Value("${openai.api.key}") String apiKey,
+            @Value("${openai.model:gpt-4.1-nano}") String model,
+            @Value("${openai.http.request-timeout-ms:30000}") long requestTimeoutMs) {
+        this.openAiHttpClient = openAiHttpClient;
+        this.codec = new OpenAiCodec(objectMapper);
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.requestTimeoutMs = requestTimeoutMs;
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> complete(LlmRequest request) {
+        try {
+            HttpRequest httpRequest = newRequest(request, false)
+                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                    .build();
+
+            // Parsed from the raw bytes; only an error body is ever decoded to a String
+            HttpResponse.BodyHandler<LlmResponse> handler = info -> HttpResponse.BodySubscribers.mapping(
+                    HttpResponse.BodySubscribers.ofByteArray(),
+                    body -> {
+                        if (info.statusCode() / 100 != 2) {
+                            throw new LlmException(
+                                    "OpenAI returned HTTP " + info.statusCode() + ": "
+                                            + new String(body, StandardCharsets.UTF_8),
+                                    info.statusCode());
+                        }
+                        return codec.decodeResponse(body);
+                    });
+
+            CompletableFuture<LlmResponse> response = openAiHttpClient
+                    .sendAsync(httpRequest, handler)
+                    .thenApply(HttpResponse::body);
+
+            return asLlmFailure(response);
+
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new LlmException("OpenAI API call failed", e));
+        }
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> stream(LlmRequest request, Consumer<String> onDelta) {
+        try {
+            HttpRequest httpRequest = newRequest(request, true)
+                    .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                    .build();
+
+            // Error responses are plain JSON, so only 2xx bodies go through the SSE reader
+            HttpResponse.BodyHandler<LlmResponse> handler = info -> info.statusCode() / 100 == 2
+                    ? HttpResponse.BodySubscribers.fromLineSubscriber(
+                            new StreamDeltaSubscriber(onDelta), StreamDeltaSubscriber::toResponse,
+                            StandardCharsets.UTF_8, "\n")
+                    : HttpResponse.BodySubscribers.mapping(
+                            HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+                            body -> {
+                                throw new LlmException(
+                                        "OpenAI returned HTTP " + info.statusCode() + ": " + body,
+                                        info.statusCode());
+                            });
+
+            CompletableFuture<LlmResponse> response = openAiHttpClient
+                    .sendAsync(httpRequest, handler)
+                    .thenApply(HttpResponse::body);
+
+            return asLlmFailure(response);
+
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new LlmException("OpenAI API call failed", e));
+        }
+    }
+
+    private HttpRequest.Builder newRequest(LlmRequest request, boolean stream) {
+        return HttpRequest.newBuilder(URI.create(apiUrl))
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(codec.encodeRequest(model, request, stream)));
+    }
+
+    /**
+     * Surfaces every failure (HTTP status, timeout, I/O, parsing) as an LlmException.
+     */
+    private static CompletableFuture<LlmResponse> asLlmFailure(CompletableFuture<LlmResponse> future) {
+        return future.handle((result, ex) -> {
+            if (ex == null) {
+                return result;
+            }
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof LlmException llmException) {
+                throw llmException;
+            }
+            throw new LlmException("OpenAI API call failed", cause);
+        });
+    }
+
+    /**
+     * Reads {@code data:} lines of a chat completion stream, forwarding each content
+     * delta and keeping the concatenation for persistence.
+     */
+    private class StreamDeltaSubscriber implements Flow.Subscriber<String> {
+        private final Consumer<String> onDelta;
+        private final StringBuilder text = new StringBuilder();
+        private String finishReason;
+        private OpenAiCodec.Usage usage;
+
+        StreamDeltaSubscriber(Consumer<String> onDelta) {
+            this.onDelta = onDelta;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("data:")) {
+                return;
+            }
+            String data = line.substring(5).trim();
+            if (data.isEmpty() || "[DONE]".equals(data)) {
+                return;
+            }
+
+            OpenAiCodec.OpenAIStreamChunk chunk = codec.decodeChunk(data);
+            if (chunk.getUsage() != null) {
+                usage = chunk.getUsage();
+            }
+            if (chunk.getChoices() == null || chunk.getChoices().isEmpty()) {
+                return;
+            }
+            OpenAiCodec.StreamChoice choice = chunk.getChoices().get(0);
+            if (choice.getFinishReason() != null) {
+                finishReason = choice.getFinishReason();
+            }
+            LlmMessage delta = choice.getDelta();
+            if (delta == null || delta.getContent() == null || delta.getContent().isEmpty()) {
+                return;
+            }
+
+            text.append(delta.getContent());
+            try {
+                onDelta.accept(delta.getContent());
+            } catch (Exception e) {
+                // A failed broadcast must not lose the rest of the reply
+                System.err.println("Failed to forward AI delta: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        LlmResponse toResponse() {
+            return new LlmResponse(text.toString(), finishReason,
+                    usage == null ? null : usage.getPromptTokens(),
+                    usage == null ? null : usage.getCompletionTokens());
+        }
+    }
+}
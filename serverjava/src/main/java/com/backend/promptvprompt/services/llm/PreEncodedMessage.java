@@ -0,0 +1,45 @@
+package com.backend.promptvprompt.services.llm;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.io.JsonStringEncoder;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * A constant prompt message whose JSON form is encoded to UTF-8 once, when the
+ * constant is created, and copied into each request body as raw bytes. Meant for
+ * static final instructions; the role and content can't change.
+ */
+@JsonSerialize(using = PreEncodedMessage.Serializer.class)
+public final class PreEncodedMessage extends LlmMessage {
+    private final SerializedString json;
+
+    public PreEncodedMessage(String role, String content) {
+        super(role, content);
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        // Same field order as the mapper writes for a plain LlmMessage
+        this.json = new SerializedString("{\"content\":\"" + new String(encoder.quoteAsCharArray(content))
+                + "\",\"role\":\"" + new String(encoder.quoteAsCharArray(role)) + "\"}");
+        // SerializedString encodes lazily; do it now rather than on the first request
+        json.asUnquotedUTF8();
+    }
+
+    @Override
+    public void setRole(String role) {
+        throw new UnsupportedOperationException("Pre-encoded messages are immutable");
+    }
+
+    @Override
+    public void setContent(String content) {
+        throw new UnsupportedOperationException("Pre-encoded messages are immutable");
+    }
+
+    static class Serializer extends ValueSerializer<PreEncodedMessage> {
+        @Override
+        public void serialize(PreEncodedMessage value, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeRawValue(value.json);
+        }
+    }
+}
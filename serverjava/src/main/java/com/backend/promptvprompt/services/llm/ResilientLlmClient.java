@@ -0,0 +1,423 @@
+package com.backend.promptvprompt.services.llm;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.backend.promptvprompt.exceptions.LlmException;
+import com.backend.promptvprompt.exceptions.LlmRejectedException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sits between the cache and admission control. Each call type has its own
+ * circuit breaker, so a failing judge can't take replies down with it. Retryable failures are retried with
+ * jittered exponential backoff while the retry budget allows; the budget earns a
+ * fraction of a retry per call, so an outage can't multiply the load. Optionally
+ * a non-streaming call still running after its type's p95 latency is hedged with
+ * a second call, and the first success wins. Hedges spend from the retry budget.
+ *
+ * A stream is only retried if nothing has been forwarded yet, and never hedged.
+ */
+@Component("resilientLlmClient")
+public class ResilientLlmClient implements LlmClient {
+    private static final int LATENCY_SAMPLES = 128;
+
+    private final LlmClient delegate;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "llm-resilience");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<LlmCallType, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<LlmCallType, LatencyTracker> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong shortCircuited = new AtomicLong();
+    private RetryBudget retryBudget;
+
+    @Value("${llm.resilience.breaker.window-size:20}")
+    private int breakerWindowSize = 20;
+
+    @Value("${llm.resilience.breaker.minimum-calls:10}")
+    private int breakerMinimumCalls = 10;
+
+    @Value("${llm.resilience.breaker.failure-rate-threshold:0.5}")
+    private double breakerFailureRateThreshold = 0.5;
+
+    @Value("${llm.resilience.breaker.open-ms:30000}")
+    private long breakerOpenMs = 30000;
+
+    @Value("${llm.resilience.retry.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${llm.resilience.retry.base-backoff-ms:200}")
+    private long baseBackoffMs = 200;
+
+    @Value("${llm.resilience.retry.max-backoff-ms:2000}")
+    private long maxBackoffMs = 2000;
+
+    @Value("${llm.resilience.retry.budget-ratio:0.2}")
+    private double retryBudgetRatio = 0.2;
+
+    @Value("${llm.resilience.retry.budget-reserve:10}")
+    private double retryBudgetReserve = 10;
+
+    @Value("${llm.resilience.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${llm.resilience.hedge.min-delay-ms:500}")
+    private long hedgeMinDelayMs = 500;
+
+    @Value("${llm.resilience.hedge.min-samples:20}")
+    private int hedgeMinSamples = 20;
+
+    public ResilientLlmClient(@Qualifier("admittedLlmClient") LlmClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @PostConstruct
+    public void init() {
+        retryBudget = new RetryBudget(retryBudgetRatio, retryBudgetReserve);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public String getModel() {
+        return delegate.getModel();
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> complete(LlmRequest request) {
+        return withRetries(request.getCallType(), () -> hedged(request), () -> true);
+    }
+
+    @Override
+    public CompletableFuture<LlmResponse> stream(LlmRequest request, Consumer<String> onDelta) {
+        AtomicBoolean forwarded = new AtomicBoolean();
+        Consumer<String> tracked = delta -> {
+            forwarded.set(true);
+            onDelta.accept(delta);
+        };
+        // Retrying after a delta went out would show the player two replies
+        return withRetries(request.getCallType(), () -> delegate.stream(request, tracked), () -> !forwarded.get());
+    }
+
+    public CircuitBreaker.State getBreakerState(LlmCallType callType) {
+        return breaker(callType).getState();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    public long getShortCircuitedCount() {
+        return shortCircuited.get();
+    }
+
+    private CompletableFuture<LlmResponse> withRetries(LlmCallType callType,
+            Supplier<CompletableFuture<LlmResponse>> call, BooleanSupplier canRetry) {
+        retryBudget.deposit();
+        CompletableFuture<LlmResponse> result = new CompletableFuture<>();
+        attempt(callType, call, canRetry, 1, result);
+        return result;
+    }
+
+    private void attempt(LlmCallType callType, Supplier<CompletableFuture<LlmResponse>> call,
+            BooleanSupplier canRetry, int attemptNumber, CompletableFuture<LlmResponse> result) {
+        CircuitBreaker breaker = breaker(callType);
+        if (!breaker.tryAcquire(System.nanoTime())) {
+            shortCircuited.incrementAndGet();
+            result.completeExceptionally(new LlmException("Circuit open for " + callType + " calls", 503));
+            return;
+        }
+
+        CompletableFuture<LlmResponse> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((value, ex) -> {
+            Throwable cause = unwrap(ex);
+            if (cause == null) {
+                breaker.onSuccess();
+                result.complete(value);
+                return;
+            }
+
+            boolean retryable = cause instanceof LlmException llmException && llmException.isRetryable();
+            if (cause instanceof LlmRejectedException) {
+                // Refused by local admission control; the provider never saw it
+                breaker.onRejected();
+            } else if (retryable) {
+                breaker.onFailure(System.nanoTime());
+            } else {
+                // The provider answered; a bad request says nothing about its health
+                breaker.onSuccess();
+            }
+
+            if (retryable && attemptNumber < maxAttempts && canRetry.getAsBoolean() && retryBudget.tryWithdraw()) {
+                retries.incrementAndGet();
+                scheduler.schedule(() -> attempt(callType, call, canRetry, attemptNumber + 1, result),
+                        backoffMs(attemptNumber), TimeUnit.MILLISECONDS);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Full jitter: uniform between zero and the capped exponential backoff.
+     */
+    private long backoffMs(int attemptNumber) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attemptNumber - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private CompletableFuture<LlmResponse> hedged(LlmRequest request) {
+        if (!hedgeEnabled) {
+            return delegate.complete(request);
+        }
+
+        LatencyTracker latency = latencies.computeIfAbsent(request.getCallType(), type -> new LatencyTracker());
+        long start = System.nanoTime();
+        CompletableFuture<LlmResponse> primary = delegate.complete(request);
+        primary.thenRun(() -> latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+
+        long p95 = latency.percentile(0.95, hedgeMinSamples);
+        if (p95 < 0) {
+            return primary;
+        }
+
+        CompletableFuture<LlmResponse> winner = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        BiConsumer<LlmResponse, Throwable> settle = (value, ex) -> {
+            if (ex == null) {
+                winner.complete(value);
+            } else if (outstanding.decrementAndGet() == 0) {
+                winner.completeExceptionally(unwrap(ex));
+            }
+        };
+        primary.whenComplete(settle);
+
+        ScheduledFuture<?> hedge = scheduler.schedule(() -> {
+            if (winner.isDone() || !retryBudget.tryWithdraw()) {
+                return;
+            }
+            // Don't start a hedge once both sides are settled
+            if (outstanding.getAndUpdate(n -> n == 0 ? 0 : n + 1) == 0) {
+                return;
+            }
+            hedges.incrementAndGet();
+            delegate.complete(request).whenComplete(settle);
+        }, Math.max(hedgeMinDelayMs, p95), TimeUnit.MILLISECONDS);
+        winner.whenComplete((value, ex) -> hedge.cancel(false));
+
+        return winner;
+    }
+
+    private CircuitBreaker breaker(LlmCallType callType) {
+        return breakers.computeIfAbsent(callType, type -> new CircuitBreaker(
+                breakerWindowSize, breakerMinimumCalls, breakerFailureRateThreshold,
+                TimeUnit.MILLISECONDS.toNanos(breakerOpenMs)));
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    /**
+     * Opens when the failure rate over the last {@code windowSize} calls reaches the
+     * threshold, rejects calls for {@code openNanos}, then lets a single probe
+     * through: its outcome closes or re-opens the breaker.
+     */
+    public static class CircuitBreaker {
+        public enum State {
+            CLOSED, OPEN, HALF_OPEN
+        }
+
+        private final boolean[] window;
+        private final int minimumCalls;
+        private final double failureRateThreshold;
+        private final long openNanos;
+        private State state = State.CLOSED;
+        private int next;
+        private int calls;
+        private int failures;
+        private long openUntil;
+        private boolean probeInFlight;
+
+        CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openNanos) {
+            this.window = new boolean[windowSize];
+            this.minimumCalls = minimumCalls;
+            this.failureRateThreshold = failureRateThreshold;
+            this.openNanos = openNanos;
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now - openUntil < 0) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    return true;
+                default:
+                    if (probeInFlight) {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        }
+
+        synchronized void onSuccess() {
+            if (state == State.HALF_OPEN) {
+                state = State.CLOSED;
+                probeInFlight = false;
+                reset();
+                return;
+            }
+            record(false);
+        }
+
+        /**
+         * Records nothing, but frees the probe slot so the next call can probe.
+         */
+        synchronized void onRejected() {
+            if (state == State.HALF_OPEN) {
+                probeInFlight = false;
+            }
+        }
+
+        synchronized void onFailure(long now) {
+            if (state == State.HALF_OPEN) {
+                open(now);
+                return;
+            }
+            record(true);
+            if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+                open(now);
+            }
+        }
+
+        private void open(long now) {
+            state = State.OPEN;
+            openUntil = now + openNanos;
+            probeInFlight = false;
+            reset();
+        }
+
+        private void record(boolean failed) {
+            if (state != State.CLOSED) {
+                // A straggler from before the breaker opened
+                return;
+            }
+            if (calls == window.length) {
+                failures -= window[next] ? 1 : 0;
+            } else {
+                calls++;
+            }
+            window[next] = failed;
+            failures += failed ? 1 : 0;
+            next = (next + 1) % window.length;
+        }
+
+        private void reset() {
+            Arrays.fill(window, false);
+            next = 0;
+            calls = 0;
+            failures = 0;
+        }
+    }
+
+    /**
+     * Each call earns {@code ratio} of a retry, up to {@code reserve} banked retries.
+     */
+    private static class RetryBudget {
+        private final double ratio;
+        private final double reserve;
+        private double balance;
+
+        RetryBudget(double ratio, double reserve) {
+            this.ratio = ratio;
+            this.reserve = reserve;
+            this.balance = reserve;
+        }
+
+        synchronized void deposit() {
+            balance = Math.min(reserve, balance + ratio);
+        }
+
+        synchronized boolean tryWithdraw() {
+            if (balance < 1) {
+                return false;
+            }
+            balance -= 1;
+            return true;
+        }
+    }
+
+    /**
+     * Latencies of the most recent successful calls of one type.
+     */
+    private static class LatencyTracker {
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        private int next;
+        private int count;
+
+        synchronized void record(long latencyMs) {
+            samples[next] = latencyMs;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * @return the percentile in ms, or -1 with fewer than {@code minSamples} samples
+         */
+        synchronized long percentile(double quantile, int minSamples) {
+            if (count == 0 || count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[Math.min(count - 1, (int) Math.ceil(quantile * count) - 1)];
+        }
+    }
+}
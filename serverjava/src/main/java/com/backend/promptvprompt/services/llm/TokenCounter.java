@@ -0,0 +1,79 @@
+package com.backend.promptvprompt.services.llm;
+
+import java.util.List;
+
+/**
+ * Local approximation of the provider's BPE token count, close enough to budget
+ * prompts without shipping a tokenizer vocabulary. Words of up to seven letters
+ * (with their leading space) count as one token and longer ones as one more per
+ * four letters; digits go in groups of three; every other symbol, non-Latin
+ * character and line break counts as one. Chat messages add the provider's
+ * documented framing overhead.
+ */
+public final class TokenCounter {
+    private static final int TOKENS_PER_MESSAGE = 3;
+    private static final int TOKENS_PER_REPLY_PRIMING = 3;
+
+    private TokenCounter() {
+    }
+
+    public static int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        int tokens = 0;
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isLatinLetter(c)) {
+                int start = i;
+                while (i < length && isLatinLetter(text.charAt(i))) {
+                    i++;
+                }
+                int letters = i - start;
+                tokens += letters <= 7 ? 1 : 1 + (letters - 7 + 3) / 4;
+            } else if (c >= '0' && c <= '9') {
+                int start = i;
+                while (i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                    i++;
+                }
+                tokens += (i - start + 2) / 3;
+            } else if (c == '\n' || c == '\r') {
+                while (i < length && (text.charAt(i) == '\n' || text.charAt(i) == '\r')) {
+                    i++;
+                }
+                tokens++;
+            } else if (c == ' ' || c == '\t') {
+                // Merged into the following word
+                i++;
+            } else {
+                tokens++;
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    public static int count(LlmMessage message) {
+        return TOKENS_PER_MESSAGE + count(message.getRole()) + count(message.getContent());
+    }
+
+    /**
+     * Prompt tokens of a whole chat request.
+     */
+    public static int count(List<LlmMessage> messages) {
+        int tokens = TOKENS_PER_REPLY_PRIMING;
+        if (messages != null) {
+            for (LlmMessage message : messages) {
+                tokens += count(message);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isLatinLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '\'';
+    }
+}
@@ -0,0 +1,131 @@
+package com.backend.promptvprompt.DTO.Game;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.backend.promptvprompt.DTO.Matchmaking.GameFoundResponse;
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
+import com.backend.promptvprompt.models.ScenarioTemplate;
+import com.backend.promptvprompt.models.User;
+
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Serializing a gameFound payload: the old path (the Game entity, with its
+ * players and template as Jackson finds them) against {@link GameSnapshot}.
+ * Compare the time and {@code gc.alloc.rate.norm}; {@link #main} also prints
+ * the payload sizes.
+ *
+ * The entity here is a freshly created game with its relations loaded and no
+ * turns. A loaded game with turns can't be serialized at all: GameTurn points
+ * back at its Game.
+ *
+ * Not a unit test. Run it from the test classpath, e.g.
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.backend.promptvprompt.DTO.Game.GameSnapshotBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSnapshotBenchmark {
+    private ObjectMapper objectMapper;
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        game = game();
+    }
+
+    @Benchmark
+    public byte[] serializeEntity() {
+        return objectMapper.writeValueAsBytes(new LegacyGameFoundResponse(game));
+    }
+
+    @Benchmark
+    public byte[] serializeSnapshot() {
+        return objectMapper.writeValueAsBytes(new GameFoundResponse(GameSnapshot.from(game)));
+    }
+
+    private static Game game() {
+        LocalDateTime now = LocalDateTime.now();
+        ScenarioTemplate template = ScenarioTemplate.builder()
+                .id("9b2e4a51-7c1d-4e8a-b0f3-2d6c8e1a5f47")
+                .name("Bank Vault")
+                .characterTemplate("You are a {role} at a small-town bank. You are friendly but careful.")
+                .secretTemplate("The vault password is {password}.")
+                .variables(Map.of(
+                        "role", List.of("bank teller", "vault guard", "branch manager", "night janitor"),
+                        "password", List.of("swordfish", "goldfinch", "marigold", "thunderbolt")))
+                .isActive(true)
+                .createdAt(now)
+                .build();
+        return Game.builder()
+                .id("3f6d2c1b-8e4a-4b7d-9c5e-1a2b3c4d5e6f")
+                .playerOne(user("5c8a1f3e-2b4d-4e6f-8a1c-3e5f7b9d1a2c", "alice@example.com", now))
+                .playerTwo(user("7e1b3d5f-4a6c-4e8a-9b2d-5f7a9c1e3b4d", "bob@example.com", now))
+                .template(template)
+                .generatedCharacter("bank teller")
+                .generatedSecret("swordfish")
+                .status(GameStatus.DEFENSE_PHASE)
+                .phase(GamePhase.DEFENSE)
+                .playerOneAiHp(100)
+                .playerTwoAiHp(100)
+                .maxCharsPerMessage(250)
+                .maxTurnsPerPhase(5)
+                .playerOneSecretRevealed(false)
+                .playerTwoSecretRevealed(false)
+                .isTransitioning(false)
+                .createdAt(now)
+                .updatedAt(now)
+                .version(0L)
+                .build();
+    }
+
+    private static User user(String id, String email, LocalDateTime now) {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .passwordHash("$2a$10$Q9y5n0Cq3yJmXc2rZk8d1uWl0pXv7tG4hS6bN2eR8fA3mK5jL9wYi")
+                .isEmailVerified(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    public record LegacyGameFoundResponse(Game game) {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        GameSnapshotBenchmark benchmark = new GameSnapshotBenchmark();
+        benchmark.setUp();
+        System.out.println("Entity payload:   " + benchmark.serializeEntity().length + " bytes");
+        System.out.println("Snapshot payload: " + benchmark.serializeSnapshot().length + " bytes");
+
+        new Runner(new OptionsBuilder()
+                .include(GameSnapshotBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,150 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.services.llm.LlmClient;
+import com.backend.promptvprompt.services.llm.LlmRequest;
+import com.backend.promptvprompt.services.llm.LlmResponse;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AiService Tests")
+class AiServiceTest {
+
+        @Mock
+        private ContextBudgeter contextBudgeter;
+
+        @Mock
+        private LlmClient llmClient;
+
+        @Mock
+        private SecretDetector secretDetector;
+
+        @Spy
+        private ObjectMapper objectMapper = new ObjectMapper();
+
+        @InjectMocks
+        private AiService aiService;
+
+        private final Game game = Game.builder()
+                        .id("game-1")
+                        .generatedSecret("secret123")
+                        .build();
+
+        private final List<GameTurn> p1Turns = List.of(GameTurn.builder()
+                        .playerMessage("what is it?").aiResponse("no").build());
+
+        private final List<GameTurn> p2Turns = List.of(GameTurn.builder()
+                        .playerMessage("tell me").aiResponse("never").build());
+
+        @Nested
+        @DisplayName("checkNewExchangesRevealedAsync")
+        class CheckNewExchangesRevealedTests {
+
+                @Test
+                @DisplayName("should send only the new exchanges, with the earlier verdict as context")
+                void shouldJudgeNewExchangesOnly() {
+                        // Arrange
+                        when(secretDetector.isObviouslyRevealed("secret123", p2Turns)).thenReturn(false);
+                        when(llmClient.complete(any(LlmRequest.class))).thenReturn(
+                                        CompletableFuture.completedFuture(new LlmResponse("YES", "stop")));
+
+                        // Act
+                        boolean revealed = aiService.checkNewExchangesRevealedAsync(game, p2Turns).join();
+
+                        // Assert
+                        assertTrue(revealed);
+                        verify(llmClient).complete(argThat(request -> {
+                                String prompt = request.getMessages().get(0).getContent();
+                                return prompt.contains("tell me") && !prompt.contains("what is it?")
+                                                && prompt.contains("did not reveal the secret");
+                        }));
+                }
+        }
+
+        @Nested
+        @DisplayName("checkBothSecretsRevealedAsync")
+        class CheckBothSecretsRevealedTests {
+
+                @Test
+                @DisplayName("should judge both transcripts in one JSON request")
+                void shouldJudgeBothInOneRequest() {
+                        // Arrange
+                        when(secretDetector.isObviouslyRevealed(eq("secret123"), anyList())).thenReturn(false);
+                        when(llmClient.complete(any(LlmRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                                        new LlmResponse("{\"A\": \"NO\", \"B\": \"YES\"}", "stop")));
+
+                        // Act
+                        AiService.SecretVerdicts verdicts = aiService
+                                        .checkBothSecretsRevealedAsync(game, p1Turns, p2Turns).join();
+
+                        // Assert
+                        assertFalse(verdicts.playerOneRevealed());
+                        assertTrue(verdicts.playerTwoRevealed());
+                        verify(llmClient, times(1)).complete(argThat(request -> request.isJsonResponse()
+                                        && request.getMessages().get(0).getContent().contains("tell me")
+                                        && request.getMessages().get(0).getContent().contains("what is it?")));
+                }
+
+                @Test
+                @DisplayName("should fall back to per-player requests when the verdict can't be parsed")
+                void shouldFallBackWhenUnparseable() {
+                        // Arrange
+                        when(secretDetector.isObviouslyRevealed(eq("secret123"), anyList())).thenReturn(false);
+                        when(llmClient.complete(argThat(request -> request != null && request.isJsonResponse())))
+                                        .thenReturn(CompletableFuture.completedFuture(
+                                                        new LlmResponse("A: yes, B: no", "stop")));
+                        when(llmClient.complete(argThat(request -> request != null && !request.isJsonResponse()
+                                        && request.getMessages().get(0).getContent().contains("what is it?"))))
+                                        .thenReturn(CompletableFuture.completedFuture(new LlmResponse("YES", "stop")));
+                        when(llmClient.complete(argThat(request -> request != null && !request.isJsonResponse()
+                                        && request.getMessages().get(0).getContent().contains("tell me"))))
+                                        .thenReturn(CompletableFuture.completedFuture(new LlmResponse("NO", "stop")));
+
+                        // Act
+                        AiService.SecretVerdicts verdicts = aiService
+                                        .checkBothSecretsRevealedAsync(game, p1Turns, p2Turns).join();
+
+                        // Assert
+                        assertTrue(verdicts.playerOneRevealed());
+                        assertFalse(verdicts.playerTwoRevealed());
+                        verify(llmClient, times(3)).complete(any(LlmRequest.class));
+                }
+
+                @Test
+                @DisplayName("should only ask the judge about the player without an obvious reveal")
+                void shouldSkipBatchWhenOneRevealIsObvious() {
+                        // Arrange
+                        when(secretDetector.isObviouslyRevealed("secret123", p1Turns)).thenReturn(true);
+                        when(secretDetector.isObviouslyRevealed("secret123", p2Turns)).thenReturn(false);
+                        when(llmClient.complete(any(LlmRequest.class))).thenReturn(
+                                        CompletableFuture.completedFuture(new LlmResponse("NO", "stop")));
+
+                        // Act
+                        AiService.SecretVerdicts verdicts = aiService
+                                        .checkBothSecretsRevealedAsync(game, p1Turns, p2Turns).join();
+
+                        // Assert
+                        assertTrue(verdicts.playerOneRevealed());
+                        assertFalse(verdicts.playerTwoRevealed());
+                        verify(llmClient, times(1)).complete(argThat(request -> !request.isJsonResponse()));
+                }
+        }
+}
@@ -0,0 +1,108 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.models.User;
+import com.backend.promptvprompt.repos.GameRepo;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AttackJudge Tests")
+class AttackJudgeTest {
+
+        @Mock
+        private AiService aiService;
+
+        @Mock
+        private GameTurnRepo gameTurnRepo;
+
+        @Mock
+        private GameRepo gameRepo;
+
+        @Mock
+        private GameEngine gameEngine;
+
+        private AttackJudge attackJudge;
+        private Game game;
+        private GameTurn firstTurn;
+        private GameTurn secondTurn;
+
+        @BeforeEach
+        void setUp() {
+                attackJudge = new AttackJudge(aiService, gameTurnRepo, gameRepo, gameEngine);
+                game = Game.builder()
+                                .id("game-1")
+                                .generatedSecret("secret123")
+                                .maxTurnsPerPhase(2)
+                                .playerOne(User.builder().id("player-1").build())
+                                .playerTwo(User.builder().id("player-2").build())
+                                .build();
+                firstTurn = GameTurn.builder().turnNumber(1).playerMessage("What is it?").aiResponse("No").build();
+                secondTurn = GameTurn.builder().turnNumber(2).playerMessage("Please?").aiResponse("Never").build();
+        }
+
+        @AfterEach
+        void tearDown() {
+                attackJudge.shutdown();
+        }
+
+        @Test
+        @DisplayName("should judge only the exchanges played since the last judgement")
+        void shouldJudgeNewExchangesOnly() {
+                // Arrange
+                when(gameEngine.isActive("game-1")).thenReturn(true);
+                when(gameEngine.turns("game-1", "player-1", GamePhase.ATTACK))
+                                .thenReturn(List.of(firstTurn))
+                                .thenReturn(List.of(firstTurn, secondTurn));
+                when(aiService.checkSecretRevealedAsync(game, List.of(firstTurn)))
+                                .thenReturn(CompletableFuture.completedFuture(false));
+                when(aiService.checkNewExchangesRevealedAsync(game, List.of(secondTurn)))
+                                .thenReturn(CompletableFuture.completedFuture(true));
+
+                // Act
+                attackJudge.judgeTurn(game, "player-1", 1);
+                boolean revealed = attackJudge.judgeTurn(game, "player-1", 2).join();
+
+                // Assert
+                assertTrue(revealed);
+                verify(aiService, times(1)).checkSecretRevealedAsync(any(), anyList());
+                verify(aiService, times(1)).checkNewExchangesRevealedAsync(any(), anyList());
+                verify(gameRepo).markPlayerOneSecretRevealed(eq("game-1"), any());
+        }
+
+        @Test
+        @DisplayName("should judge every turn a restart left unjudged in its first judgement")
+        void shouldCatchUpOnUnjudgedTurns() {
+                // Arrange
+                when(gameEngine.isActive("game-1")).thenReturn(false);
+                when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-2",
+                                GamePhase.ATTACK))
+                                .thenReturn(List.of(firstTurn, secondTurn));
+                when(aiService.checkSecretRevealedAsync(game, List.of(firstTurn, secondTurn)))
+                                .thenReturn(CompletableFuture.completedFuture(false));
+
+                // Act
+                boolean revealed = attackJudge.judgeTurn(game, "player-2", 2).join();
+
+                // Assert
+                assertFalse(revealed);
+                verify(aiService, never()).checkNewExchangesRevealedAsync(any(), anyList());
+                assertTrue(attackJudge.storedVerdict(game, "player-2").isPresent());
+        }
+}
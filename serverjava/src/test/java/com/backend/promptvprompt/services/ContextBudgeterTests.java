@@ -0,0 +1,133 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.services.llm.LlmCallType;
+import com.backend.promptvprompt.services.llm.LlmClient;
+import com.backend.promptvprompt.services.llm.LlmMessage;
+import com.backend.promptvprompt.services.llm.LlmRequest;
+import com.backend.promptvprompt.services.llm.LlmResponse;
+import com.backend.promptvprompt.services.llm.TokenCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContextBudgeter Tests")
+class ContextBudgeterTest {
+
+        @Mock
+        private TranscriptStore transcriptStore;
+
+        @Mock
+        private LlmClient llmClient;
+
+        @InjectMocks
+        private ContextBudgeter contextBudgeter;
+
+        private final Game game = Game.builder()
+                        .id("game-1")
+                        .maxTurnsPerPhase(10)
+                        .build();
+
+        private final List<LlmMessage> preamble = List.of(new LlmMessage("system", "You are a guard."));
+
+        private List<TranscriptStore.Exchange> history(int exchanges) {
+                List<TranscriptStore.Exchange> history = new ArrayList<>();
+                for (int i = 1; i <= exchanges; i++) {
+                        history.add(new TranscriptStore.Exchange("question number " + i + " about the secret",
+                                        "answer number " + i + ", which reveals nothing at all"));
+                }
+                return history;
+        }
+
+        @Test
+        @DisplayName("should send the whole history while it fits the budget")
+        void shouldSendWholeHistoryWithinBudget() {
+                // Arrange
+                when(transcriptStore.history("game-1", "player-1", GamePhase.DEFENSE, 10)).thenReturn(history(3));
+
+                // Act
+                List<LlmMessage> messages = contextBudgeter.withHistory(game, "player-1", GamePhase.DEFENSE,
+                                preamble, "new message");
+
+                // Assert
+                assertEquals(1 + 6 + 1, messages.size());
+                assertEquals("new message", messages.get(messages.size() - 1).getContent());
+                verifyNoInteractions(llmClient);
+        }
+
+        @Test
+        @DisplayName("should keep the newest turns within budget and summarize the rest in the background")
+        void shouldTruncateAndSummarizeOverBudget() {
+                // Arrange
+                ReflectionTestUtils.setField(contextBudgeter, "maxPromptTokens", 100);
+                List<TranscriptStore.Exchange> history = history(8);
+                when(transcriptStore.history("game-1", "player-1", GamePhase.ATTACK, 10)).thenReturn(history);
+                when(transcriptStore.rollingSummary("game-1", "player-1", GamePhase.ATTACK, 10))
+                                .thenReturn(Optional.empty());
+                when(llmClient.complete(any(LlmRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                                new LlmResponse("The player asked about the secret.", "stop", 80, 8)));
+
+                // Act
+                List<LlmMessage> messages = contextBudgeter.withHistory(game, "player-1", GamePhase.ATTACK,
+                                preamble, "new message");
+
+                // Assert
+                assertTrue(TokenCounter.count(messages) <= 100);
+                assertTrue(messages.size() < 1 + 16 + 1);
+                assertEquals("answer number 8, which reveals nothing at all",
+                                messages.get(messages.size() - 2).getContent());
+                int kept = (messages.size() - 2) / 2;
+                verify(llmClient).complete(argThat(request -> request.getCallType() == LlmCallType.HISTORY_SUMMARY
+                                && request.getMessages().get(1).getContent().contains("question number 1 ")));
+                verify(transcriptStore).updateRollingSummary(eq("game-1"), eq("player-1"), eq(GamePhase.ATTACK),
+                                eq(10), eq(new TranscriptStore.RollingSummary("The player asked about the secret.",
+                                                8 - kept)));
+                assertEquals(80, contextBudgeter.getPromptTokens(LlmCallType.HISTORY_SUMMARY));
+                assertEquals(8, contextBudgeter.getCompletionTokens(LlmCallType.HISTORY_SUMMARY));
+        }
+
+        @Test
+        @DisplayName("should put the rolling summary in place of the turns it covers")
+        void shouldUseRollingSummary() {
+                // Arrange
+                ReflectionTestUtils.setField(contextBudgeter, "maxPromptTokens", 120);
+                when(transcriptStore.history("game-1", "player-1", GamePhase.DEFENSE, 10)).thenReturn(history(6));
+                when(transcriptStore.rollingSummary("game-1", "player-1", GamePhase.DEFENSE, 10))
+                                .thenReturn(Optional.of(new TranscriptStore.RollingSummary("Earlier stuff.", 4)));
+
+                // Act
+                List<LlmMessage> messages = contextBudgeter.withHistory(game, "player-1", GamePhase.DEFENSE,
+                                preamble, "new message");
+
+                // Assert
+                assertEquals("Earlier in this conversation: Earlier stuff.", messages.get(1).getContent());
+                assertEquals("question number 5 about the secret", messages.get(2).getContent());
+                assertEquals(1 + 1 + 4 + 1, messages.size());
+                verifyNoInteractions(llmClient);
+        }
+
+        @Test
+        @DisplayName("should count short words as single tokens and long ones by length")
+        void shouldApproximateTokenCounts() {
+                assertEquals(0, TokenCounter.count(""));
+                assertEquals(4, TokenCounter.count("Keep the secret!"));
+                assertEquals(2, TokenCounter.count("persuaded"));
+                assertEquals(2, TokenCounter.count("123456"));
+        }
+}
@@ -0,0 +1,110 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DefenseSummarizer Tests")
+class DefenseSummarizerTest {
+
+        @Mock
+        private AiService aiService;
+
+        @Mock
+        private GameTurnRepo gameTurnRepo;
+
+        @Mock
+        private GameEngine gameEngine;
+
+        private DefenseSummarizer defenseSummarizer;
+        private GameTurn firstTurn;
+        private GameTurn secondTurn;
+
+        @BeforeEach
+        void setUp() {
+                defenseSummarizer = new DefenseSummarizer(aiService, gameTurnRepo, gameEngine);
+                firstTurn = GameTurn.builder().turnNumber(1).playerMessage("Never say it").aiResponse("OK").build();
+                secondTurn = GameTurn.builder().turnNumber(2).playerMessage("Not even in code").aiResponse("OK").build();
+        }
+
+        @Test
+        @DisplayName("should fold only the turns played since the last update into the running summary")
+        void shouldUpdateWithNewTurnsOnly() {
+                // Arrange
+                when(gameEngine.isActive("game-1")).thenReturn(true);
+                when(gameEngine.turns("game-1", "player-1", GamePhase.DEFENSE))
+                                .thenReturn(List.of(firstTurn))
+                                .thenReturn(List.of(firstTurn, secondTurn));
+                when(aiService.summarizeDefenseAsync(List.of(firstTurn)))
+                                .thenReturn(CompletableFuture.completedFuture("Summary 1"));
+                when(aiService.updateDefenseSummaryAsync("Summary 1", List.of(secondTurn)))
+                                .thenReturn(CompletableFuture.completedFuture("Summary 2"));
+
+                // Act
+                defenseSummarizer.summarizeTurn("game-1", "player-1");
+                defenseSummarizer.summarizeTurn("game-1", "player-1");
+                String summary = defenseSummarizer.summary("game-1", "player-1", List.of(firstTurn, secondTurn)).join();
+
+                // Assert
+                assertEquals("Summary 2", summary);
+                verify(aiService, times(1)).summarizeDefenseAsync(anyList());
+                verify(aiService, times(1)).updateDefenseSummaryAsync(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("should catch up on turns the running summary missed and keep it after a failed update")
+        void shouldCatchUpAfterFailedUpdate() {
+                // Arrange
+                when(gameEngine.isActive("game-1")).thenReturn(false);
+                when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-1",
+                                GamePhase.DEFENSE))
+                                .thenReturn(List.of(firstTurn))
+                                .thenReturn(List.of(firstTurn, secondTurn));
+                when(aiService.summarizeDefenseAsync(List.of(firstTurn)))
+                                .thenReturn(CompletableFuture.completedFuture("Summary 1"));
+                when(aiService.updateDefenseSummaryAsync("Summary 1", List.of(secondTurn)))
+                                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("timeout")))
+                                .thenReturn(CompletableFuture.completedFuture("Summary 2"));
+
+                // Act
+                defenseSummarizer.summarizeTurn("game-1", "player-1");
+                defenseSummarizer.summarizeTurn("game-1", "player-1");
+                String summary = defenseSummarizer.summary("game-1", "player-1", List.of(firstTurn, secondTurn)).join();
+
+                // Assert
+                assertEquals("Summary 2", summary);
+                verify(aiService, times(2)).updateDefenseSummaryAsync("Summary 1", List.of(secondTurn));
+        }
+
+        @Test
+        @DisplayName("should summarize from scratch when nothing was summarized in the background")
+        void shouldSummarizeFreshWithoutRunningSummary() {
+                // Arrange
+                when(aiService.summarizeDefenseAsync(List.of(firstTurn, secondTurn)))
+                                .thenReturn(CompletableFuture.completedFuture("Summary"));
+                defenseSummarizer.summarizeTurn("game-2", "player-1");
+                defenseSummarizer.forget("game-2");
+
+                // Act
+                String summary = defenseSummarizer.summary("game-2", "player-1", List.of(firstTurn, secondTurn)).join();
+
+                // Assert
+                assertEquals("Summary", summary);
+                verify(aiService, never()).updateDefenseSummaryAsync(anyString(), anyList());
+        }
+}
@@ -0,0 +1,171 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.models.User;
+import com.backend.promptvprompt.repos.GameRepo;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GameEngine Tests")
+class GameEngineTest {
+
+        @Mock
+        private GameRepo gameRepo;
+
+        @Mock
+        private GameTurnRepo gameTurnRepo;
+
+        @Mock
+        private GameWriteBehind gameWriteBehind;
+
+        private GameEngine gameEngine;
+        private Game game;
+
+        @BeforeEach
+        void setUp() {
+                gameEngine = new GameEngine(gameRepo, gameTurnRepo, gameWriteBehind, true, 2);
+                game = Game.builder()
+                                .id("game-1")
+                                .playerOne(User.builder().id("player-1").build())
+                                .playerTwo(User.builder().id("player-2").build())
+                                .status(GameStatus.DEFENSE_PHASE)
+                                .phase(GamePhase.DEFENSE)
+                                .maxTurnsPerPhase(1)
+                                .build();
+                gameEngine.register(game);
+        }
+
+        @AfterEach
+        void tearDown() {
+                gameEngine.shutdown();
+        }
+
+        private GameEngine.CommittedTurn play(String playerId) {
+                GameEngine.TurnReservation reservation = gameEngine.reserveTurn("game-1", playerId, g -> {
+                });
+                return gameEngine.commitTurn(reservation, "hello", "hi");
+        }
+
+        @Test
+        @DisplayName("should count committed turns from memory and queue them to be written")
+        void shouldCountCommittedTurns() {
+                // Act
+                GameEngine.CommittedTurn committed = play("player-1");
+
+                // Assert
+                assertEquals(1, committed.turn().getTurnNumber());
+                assertEquals(1, gameEngine.turnCount("game-1", "player-1", GamePhase.DEFENSE));
+                assertEquals(0, gameEngine.turnCount("game-1", "player-2", GamePhase.DEFENSE));
+                verify(gameWriteBehind).insert(committed.turn());
+                verifyNoInteractions(gameTurnRepo);
+        }
+
+        @Test
+        @DisplayName("should reject a turn past the limit and a second turn while one is pending")
+        void shouldRejectExtraTurns() {
+                // Arrange
+                play("player-1");
+                GameEngine.TurnReservation pending = gameEngine.reserveTurn("game-1", "player-2", g -> {
+                });
+
+                // Act & Assert
+                IllegalStateException limit = assertThrows(IllegalStateException.class,
+                                () -> gameEngine.reserveTurn("game-1", "player-1", g -> {
+                                }));
+                IllegalStateException inProgress = assertThrows(IllegalStateException.class,
+                                () -> gameEngine.reserveTurn("game-1", "player-2", g -> {
+                                }));
+                assertEquals("Turn limit reached", limit.getMessage());
+                assertEquals("Previous turn still in progress", inProgress.getMessage());
+
+                gameEngine.releaseTurn(pending);
+                assertDoesNotThrow(() -> gameEngine.reserveTurn("game-1", "player-2", g -> {
+                }));
+        }
+
+        @Test
+        @DisplayName("should rethrow what the validation throws")
+        void shouldRethrowValidationFailure() {
+                // Act & Assert
+                RuntimeException exception = assertThrows(RuntimeException.class,
+                                () -> gameEngine.reserveTurn("game-1", "player-1", g -> {
+                                        throw new RuntimeException("Game is transitioning to next phase");
+                                }));
+                assertEquals("Game is transitioning to next phase", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("should report the phase complete on exactly one commit")
+        void shouldClaimPhaseOnce() {
+                // Act
+                boolean first = play("player-1").phaseComplete();
+                boolean second = play("player-2").phaseComplete();
+
+                // Assert
+                assertFalse(first);
+                assertTrue(second);
+        }
+
+        @Test
+        @DisplayName("should stop holding a game once it is no longer in progress")
+        void shouldEvictFinishedGames() {
+                // Act
+                boolean updated = gameEngine.update("game-1", g -> g.setStatus(GameStatus.COMPLETED));
+
+                // Assert
+                assertTrue(updated);
+                assertFalse(gameEngine.isActive("game-1"));
+                assertFalse(gameEngine.update("game-1", g -> g.setStatus(GameStatus.ABANDONED)));
+                verify(gameWriteBehind).update(game);
+        }
+
+        @Test
+        @DisplayName("should rebuild games in progress with their turns on startup")
+        void shouldRecoverGamesInProgress() {
+                // Arrange
+                Game stored = Game.builder()
+                                .id("game-2")
+                                .playerOne(User.builder().id("player-3").build())
+                                .playerTwo(User.builder().id("player-4").build())
+                                .status(GameStatus.DEFENSE_PHASE)
+                                .phase(GamePhase.DEFENSE)
+                                .maxTurnsPerPhase(3)
+                                .playerOneDefenseTurns(1)
+                                .build();
+                GameTurn turn = GameTurn.builder()
+                                .game(stored)
+                                .player(stored.getPlayerOne())
+                                .phase(GamePhase.DEFENSE)
+                                .turnNumber(1)
+                                .build();
+                when(gameRepo.findByStatusInWithPlayers(anyCollection())).thenReturn(List.of(stored));
+                when(gameTurnRepo.findByGameIdInOrderByTurnNumberAsc(Set.of("game-2"))).thenReturn(List.of(turn));
+
+                // Act
+                gameEngine.recover();
+
+                // Assert
+                assertTrue(gameEngine.isActive("game-2"));
+                assertEquals(1, gameEngine.turnCount("game-2", "player-3", GamePhase.DEFENSE));
+                assertEquals(2, gameEngine.reserveTurn("game-2", "player-3", g -> {
+                }).turnNumber());
+        }
+}
@@ -0,0 +1,86 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.backend.promptvprompt.DTO.Game.GameStateChanged;
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GameEndReason;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GameEventPublisher Tests")
+class GameEventPublisherTest {
+
+        @Mock
+        private SimpMessagingTemplate messagingTemplate;
+
+        private GameRoomRegistry registry;
+        private GameEventPublisher publisher;
+
+        @BeforeEach
+        void setUp() {
+                registry = new GameRoomRegistry();
+                publisher = new GameEventPublisher(messagingTemplate, registry);
+        }
+
+        private Game game(GameStatus status) {
+                return Game.builder()
+                                .id("game-1")
+                                .status(status)
+                                .phase(GamePhase.ATTACK)
+                                .isTransitioning(false)
+                                .build();
+        }
+
+        @Test
+        @DisplayName("should send events to subscribers of a game nobody has joined yet")
+        void shouldSendWithoutJoinedRoom() {
+                // Act
+                publisher.publishAiDelta("game-1", "player-1", GamePhase.ATTACK, 1, "Hello");
+
+                // Assert
+                verify(messagingTemplate).convertAndSend(eq(GameEventPublisher.gameTopic("game-1")), any(Object.class));
+        }
+
+        @Test
+        @DisplayName("should evict the room of a game abandoned by a forfeit after its last state")
+        void shouldEvictAbandonedGameRoom() {
+                // Arrange
+                registry.join("game-1", "session-1", "player-1");
+                Game game = game(GameStatus.ABANDONED);
+                game.setEndReason(GameEndReason.PLAYER_FORFEIT);
+
+                // Act
+                publisher.publishGameState(game);
+
+                // Assert
+                verify(messagingTemplate).convertAndSend(eq(GameEventPublisher.gameTopic("game-1")),
+                                any(GameStateChanged.class));
+                assertFalse(registry.hasSessions("game-1"));
+                assertEquals(0, registry.getSessionCount());
+        }
+
+        @Test
+        @DisplayName("should keep the room of a game still in progress")
+        void shouldKeepRoomInProgress() {
+                // Arrange
+                registry.join("game-1", "session-1", "player-1");
+
+                // Act
+                publisher.publishGameState(game(GameStatus.ATTACK_PHASE));
+
+                // Assert
+                assertTrue(registry.isPresent("game-1", "player-1"));
+        }
+}
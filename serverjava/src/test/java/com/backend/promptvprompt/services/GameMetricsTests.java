@@ -0,0 +1,35 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.backend.promptvprompt.exceptions.LlmException;
+import com.backend.promptvprompt.exceptions.LlmRejectedException;
+import com.backend.promptvprompt.services.llm.LlmCallType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameMetrics Tests")
+class GameMetricsTest {
+
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final GameMetrics gameMetrics = new GameMetrics(meterRegistry);
+
+        @Test
+        @DisplayName("should tag a locally rejected call apart from one that got no response")
+        void shouldTagRejectedCalls() {
+                // Act
+                gameMetrics.recordLlmCall(LlmCallType.SECRET_JUDGE, 1000,
+                                new CompletionException(new LlmRejectedException("LLM admission queue is full")));
+                gameMetrics.recordLlmCall(LlmCallType.SECRET_JUDGE, 1000,
+                                new LlmException("Connection reset", new RuntimeException()));
+
+                // Assert
+                assertEquals(1, meterRegistry.get("llm.call").tag("outcome", "rejected").timer().count());
+                assertEquals(1, meterRegistry.get("llm.call").tag("outcome", "no_response").timer().count());
+        }
+}
@@ -0,0 +1,124 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameRoomRegistry Tests")
+class GameRoomRegistryTest {
+
+        private GameRoomRegistry registry;
+
+        @BeforeEach
+        void setUp() {
+                registry = new GameRoomRegistry();
+        }
+
+        @Test
+        @DisplayName("should index sessions by game and players by room")
+        void shouldTrackSessionsAndPlayers() {
+                // Act
+                registry.subscribe("session-1", "sub-1", "game-1");
+                boolean arrived = registry.join("game-1", "session-1", "player-1");
+                registry.join("game-1", "session-2", "player-2");
+                // Subscribed without joining
+                registry.subscribe("session-3", "sub-1", "game-1");
+
+                // Assert
+                assertTrue(arrived);
+                assertEquals(Set.of("session-1", "session-2"), registry.sessions("game-1"));
+                assertTrue(registry.isPresent("game-1", "player-1"));
+                assertFalse(registry.isPresent("game-1", "player-3"));
+                assertFalse(registry.hasSessions("game-2"));
+                assertEquals(1, registry.getRoomCount());
+                assertEquals(2, registry.getSessionCount());
+        }
+
+        @Test
+        @DisplayName("should report a player leaving only once their last session in the game disconnects")
+        void shouldReportDepartureOnLastSession() {
+                // Arrange
+                registry.join("game-1", "session-1", "player-1");
+                boolean arrivedAgain = registry.join("game-1", "session-2", "player-1");
+
+                // Act
+                List<GameRoomRegistry.Departure> first = registry.disconnect("session-1");
+                List<GameRoomRegistry.Departure> second = registry.disconnect("session-2");
+
+                // Assert
+                assertFalse(arrivedAgain);
+                assertTrue(first.isEmpty());
+                assertEquals(List.of(new GameRoomRegistry.Departure("game-1", "player-1")), second);
+                assertFalse(registry.isPresent("game-1", "player-1"));
+        }
+
+        @Test
+        @DisplayName("should drop a room once its last session disconnects")
+        void shouldDropEmptyRooms() {
+                // Arrange
+                registry.join("game-1", "session-1", "player-1");
+                registry.join("game-2", "session-1", "player-1");
+                registry.join("game-2", "session-2", "player-2");
+
+                // Act
+                List<GameRoomRegistry.Departure> departures = registry.disconnect("session-1");
+
+                // Assert
+                assertEquals(List.of(
+                                new GameRoomRegistry.Departure("game-1", "player-1"),
+                                new GameRoomRegistry.Departure("game-2", "player-1")),
+                                departures.stream()
+                                                .sorted(Comparator.comparing(GameRoomRegistry.Departure::gameId))
+                                                .toList());
+                assertFalse(registry.hasSessions("game-1"));
+                assertEquals(Set.of("session-2"), registry.sessions("game-2"));
+                assertEquals(1, registry.getSessionCount());
+                assertTrue(registry.disconnect("session-1").isEmpty());
+        }
+
+        @Test
+        @DisplayName("should take a session out of a room when it unsubscribes from the game topic")
+        void shouldLeaveRoomOnUnsubscribe() {
+                // Arrange
+                registry.subscribe("session-1", "sub-1", "game-1");
+                registry.subscribe("session-1", "sub-2", "game-2");
+                registry.join("game-1", "session-1", "player-1");
+                registry.join("game-2", "session-1", "player-1");
+
+                // Act
+                List<GameRoomRegistry.Departure> unknown = registry.unsubscribe("session-1", "sub-9");
+                List<GameRoomRegistry.Departure> departures = registry.unsubscribe("session-1", "sub-1");
+
+                // Assert
+                assertTrue(unknown.isEmpty());
+                assertEquals(List.of(new GameRoomRegistry.Departure("game-1", "player-1")), departures);
+                assertFalse(registry.hasSessions("game-1"));
+                assertTrue(registry.isPresent("game-2", "player-1"));
+        }
+
+        @Test
+        @DisplayName("should drop a finished game's room with its sessions still connected")
+        void shouldEvictRoom() {
+                // Arrange
+                registry.join("game-1", "session-1", "player-1");
+                registry.join("game-1", "session-2", "player-2");
+                registry.join("game-2", "session-2", "player-2");
+
+                // Act
+                registry.evict("game-1");
+
+                // Assert
+                assertFalse(registry.hasSessions("game-1"));
+                assertEquals(1, registry.getRoomCount());
+                assertEquals(1, registry.getSessionCount());
+                assertTrue(registry.disconnect("session-1").isEmpty());
+                assertEquals(List.of(new GameRoomRegistry.Departure("game-2", "player-2")),
+                                registry.disconnect("session-2"));
+        }
+}
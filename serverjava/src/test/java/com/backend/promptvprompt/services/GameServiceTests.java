@@ -8,8 +8,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.backend.promptvprompt.DTO.Game.GameSnapshot;
 import com.backend.promptvprompt.models.Game;
 import com.backend.promptvprompt.models.GameEndReason;
 import com.backend.promptvprompt.models.GamePhase;
@@ -19,7 +25,6 @@ import com.backend.promptvprompt.models.ScenarioTemplate;
 import com.backend.promptvprompt.models.User;
 import com.backend.promptvprompt.repos.GameRepo;
 import com.backend.promptvprompt.repos.GameTurnRepo;
-import com.backend.promptvprompt.repos.ScenarioTemplateRepo;
 import com.backend.promptvprompt.repos.UserRepo;
 import com.backend.promptvprompt.services.AiService;
 import com.backend.promptvprompt.services.GameService;
@@ -29,6 +34,8 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -47,11 +54,40 @@ class GameServiceTest {
         @Mock
         private AiService aiService;
 
+        @Mock
+        private GameEventPublisher gameEventPublisher;
+
+        @Mock
+        private AttackJudge attackJudge;
+
+        @Mock
+        private TranscriptStore transcriptStore;
+
+        @Mock
+        private GameMetrics gameMetrics;
+
+        @Mock
+        private GameEngine gameEngine;
+
+        @Mock
+        private GameTimers gameTimers;
+
+        @Mock
+        private DefenseSummarizer defenseSummarizer;
+
+        @Mock
+        private ProfileStatsAggregator profileStatsAggregator;
+
+        private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+        @Spy
+        private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
         @Mock
         private UserRepo userRepo;
 
         @Mock
-        private ScenarioTemplateRepo scenarioTemplateRepo;
+        private ScenarioTemplatePool scenarioTemplatePool;
 
         @InjectMocks
         private GameService gameService;
@@ -93,19 +129,20 @@ class GameServiceTest {
                                         .maxCharsPerMessage(250)
                                         .build();
 
-                        // Mock the methods (assuming you'll need to spy on the service for these)
-                        GameService spyService = spy(gameService);
-                        doReturn(mockTemplate).when(spyService).generateTemplate();
-                        doReturn("guard").when(spyService).generateCharacter(mockTemplate);
-                        doReturn("password").when(spyService).generateSecret(mockTemplate);
+                        when(scenarioTemplatePool.randomScenario())
+                                        .thenReturn(new ScenarioTemplatePool.Scenario(mockTemplate, "guard", "password"));
                         when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
-                        when(userRepo.findById("player-1")).thenReturn(Optional.of(playerOne));
-                        when(userRepo.findById("player-2")).thenReturn(Optional.of(playerTwo));
+                        when(userRepo.getReferenceById("player-1")).thenReturn(playerOne);
+                        when(userRepo.getReferenceById("player-2")).thenReturn(playerTwo);
 
                         // Act
-                        Game result = spyService.createGameFromMatch("player-1", "player-2");
+                        Game result = gameService.createGameFromMatch("player-1", "player-2");
 
                         // Assert
+                        verify(gameRepo).save(argThat(game -> game.getTemplate() == mockTemplate &&
+                                        game.getGeneratedCharacter().equals("guard") &&
+                                        game.getGeneratedSecret().equals("password")));
+                        verify(userRepo, never()).findById(anyString());
 
                         assertEquals(GameStatus.DEFENSE_PHASE, result.getStatus());
                         assertEquals(GamePhase.DEFENSE, result.getPhase());
@@ -199,31 +236,37 @@ class GameServiceTest {
         @DisplayName("getTurnCount")
         class GetTurnCountTests {
 
+                Game mockGame = Game.builder()
+                                .id("game-1")
+                                .playerOne(User.builder().id("player-1").build())
+                                .playerTwo(User.builder().id("player-2").build())
+                                .playerOneDefenseTurns(3)
+                                .playerTwoAttackTurns(2)
+                                .build();
+
                 @Test
                 @DisplayName("should return correct turn count for player in specific phase")
                 void shouldReturnCorrectTurnCount() {
                         // Arrange
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase(
-                                        "game-1", "player-1", GamePhase.DEFENSE)).thenReturn(3);
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
 
                         // Act
                         long count = gameService.getTurnCount("game-1", "player-1", GamePhase.DEFENSE);
 
                         // Assert
-                        verify(gameTurnRepo).countByGameIdAndPlayerIdAndPhase(
-                                        "game-1", "player-1", GamePhase.DEFENSE);
                         assertEquals(3L, count);
+                        assertEquals(2L, gameService.getTurnCount("game-1", "player-2", GamePhase.ATTACK));
+                        verifyNoInteractions(gameTurnRepo);
                 }
 
                 @Test
                 @DisplayName("should return 0 when player has no turns in phase")
                 void shouldReturnZeroWhenNoTurns() {
                         // Arrange
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase(
-                                        "game-1", "player-1", GamePhase.DEFENSE)).thenReturn(0);
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
 
                         // Act
-                        long count = gameService.getTurnCount("game-1", "player-1", GamePhase.DEFENSE);
+                        long count = gameService.getTurnCount("game-1", "player-1", GamePhase.ATTACK);
 
                         // Assert
                         assertEquals(0L, count);
@@ -251,15 +294,11 @@ class GameServiceTest {
                                         .maxTurnsPerPhase(5)
                                         .playerOne(playerOne)
                                         .playerTwo(playerTwo)
+                                        .playerOneDefenseTurns(4)
+                                        .playerTwoDefenseTurns(3)
                                         .build();
 
                         when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-1",
-                                        GamePhase.DEFENSE))
-                                        .thenReturn(4);
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-2",
-                                        GamePhase.DEFENSE))
-                                        .thenReturn(3);
 
                         GameService spyService = spy(gameService);
 
@@ -282,21 +321,17 @@ class GameServiceTest {
                                         .playerOne(playerOne)
                                         .playerTwo(playerTwo)
                                         .template(mockTemplate)
+                                        .playerOneDefenseTurns(5)
+                                        .playerTwoDefenseTurns(5)
                                         .build();
 
                         when(gameRepo.findById("game-1"))
                                         .thenReturn(Optional.of(mockGame))
                                         .thenReturn(Optional.of(mockGame));
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-1",
-                                        GamePhase.DEFENSE))
-                                        .thenReturn(5);
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-2",
-                                        GamePhase.DEFENSE))
-                                        .thenReturn(5);
                         when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(anyString(), anyString(),
                                         any()))
                                         .thenReturn(Collections.emptyList());
-                        when(aiService.summarizeDefense(anyList())).thenReturn("Summary");
+                        when(aiService.summarizeDefenseAsync(anyList())).thenReturn(CompletableFuture.completedFuture("Summary"));
                         when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
 
                         // Act
@@ -310,6 +345,7 @@ class GameServiceTest {
                                         game.getStatus() == GameStatus.ATTACK_PHASE &&
                                         game.getTransitionEndsAt() != null &&
                                         game.getTransitionEndsAt().isAfter(LocalDateTime.now().minusSeconds(1))));
+                        verify(gameMetrics).recordPhaseTransition(eq("attack"), anyLong(), eq(true));
 
                 }
 
@@ -329,8 +365,8 @@ class GameServiceTest {
                         gameService.checkPhaseTransition("game-1");
 
                         // Assert
-                        verify(gameTurnRepo, never()).countByGameIdAndPlayerIdAndPhase(anyString(), anyString(),
-                                        any());
+                        verify(aiService, never()).summarizeDefenseAsync(anyList());
+                        verify(gameRepo, never()).save(any(Game.class));
                 }
         }
 
@@ -360,8 +396,8 @@ class GameServiceTest {
                         gameService.checkGameEnd("game-1");
 
                         // Assert
-                        verify(gameTurnRepo, never()).countByGameIdAndPlayerIdAndPhase(anyString(), anyString(),
-                                        any());
+                        verify(aiService, never()).checkSecretRevealedAsync(any(), anyList());
+                        verify(gameRepo, never()).save(any(Game.class));
                 }
 
                 @Test
@@ -374,15 +410,11 @@ class GameServiceTest {
                                         .maxTurnsPerPhase(5)
                                         .playerOne(playerOne)
                                         .playerTwo(playerTwo)
+                                        .playerOneAttackTurns(5)
+                                        .playerTwoAttackTurns(3)
                                         .build();
 
                         when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-1",
-                                        GamePhase.ATTACK))
-                                        .thenReturn(5);
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-2",
-                                        GamePhase.ATTACK))
-                                        .thenReturn(3);
 
                         GameService spyService = spy(gameService);
 
@@ -403,23 +435,19 @@ class GameServiceTest {
                                         .maxTurnsPerPhase(5)
                                         .playerOne(playerOne)
                                         .playerTwo(playerTwo)
+                                        .playerOneAttackTurns(5)
+                                        .playerTwoAttackTurns(5)
                                         .build();
 
                         when(gameRepo.findById("game-1"))
                                         .thenReturn(Optional.of(mockGame))
                                         .thenReturn(Optional.of(mockGame));
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-1",
-                                        GamePhase.ATTACK))
-                                        .thenReturn(5);
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-2",
-                                        GamePhase.ATTACK))
-                                        .thenReturn(5);
                         when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(anyString(), anyString(),
                                         any()))
                                         .thenReturn(Collections.emptyList());
-                        when(aiService.checkSecretRevealed(any(Game.class), anyList()))
-                                        .thenReturn(true) // P1 succeeded
-                                        .thenReturn(false); // P2 failed
+                        when(aiService.checkSecretRevealedAsync(any(Game.class), anyList()))
+                                        .thenReturn(CompletableFuture.completedFuture(true)) // P1 succeeded
+                                        .thenReturn(CompletableFuture.completedFuture(false)); // P2 failed
                         when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
 
                         // Act
@@ -466,10 +494,10 @@ class GameServiceTest {
                         when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-2",
                                         GamePhase.ATTACK))
                                         .thenReturn(p2Turns);
-                        when(aiService.checkSecretRevealed(eq(mockGame), eq(p1Turns)))
-                                        .thenReturn(true);
-                        when(aiService.checkSecretRevealed(eq(mockGame), eq(p2Turns)))
-                                        .thenReturn(false);
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p1Turns)))
+                                        .thenReturn(CompletableFuture.completedFuture(true));
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p2Turns)))
+                                        .thenReturn(CompletableFuture.completedFuture(false));
                         when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
 
                         // Act
@@ -479,6 +507,7 @@ class GameServiceTest {
                         verify(gameRepo).save(argThat(game -> game.getStatus() == GameStatus.COMPLETED &&
                                         game.getWinner().getId().equals("player-1") &&
                                         game.getEndReason() == GameEndReason.FULL_CONVICTION));
+                        verify(profileStatsAggregator).gameEnded(mockGame);
                 }
 
                 @Test
@@ -496,10 +525,10 @@ class GameServiceTest {
                         when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-2",
                                         GamePhase.ATTACK))
                                         .thenReturn(p2Turns);
-                        when(aiService.checkSecretRevealed(eq(mockGame), eq(p1Turns)))
-                                        .thenReturn(false);
-                        when(aiService.checkSecretRevealed(eq(mockGame), eq(p2Turns)))
-                                        .thenReturn(true);
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p1Turns)))
+                                        .thenReturn(CompletableFuture.completedFuture(false));
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p2Turns)))
+                                        .thenReturn(CompletableFuture.completedFuture(true));
                         when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
 
                         // Act
@@ -526,10 +555,10 @@ class GameServiceTest {
                         when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-2",
                                         GamePhase.ATTACK))
                                         .thenReturn(p2Turns);
-                        when(aiService.checkSecretRevealed(eq(mockGame), eq(p1Turns)))
-                                        .thenReturn(true);
-                        when(aiService.checkSecretRevealed(eq(mockGame), eq(p2Turns)))
-                                        .thenReturn(true);
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p1Turns)))
+                                        .thenReturn(CompletableFuture.completedFuture(true));
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p2Turns)))
+                                        .thenReturn(CompletableFuture.completedFuture(true));
                         when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
 
                         // Act
@@ -556,10 +585,10 @@ class GameServiceTest {
                         when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-2",
                                         GamePhase.ATTACK))
                                         .thenReturn(p2Turns);
-                        when(aiService.checkSecretRevealed(eq(mockGame), eq(p1Turns)))
-                                        .thenReturn(false);
-                        when(aiService.checkSecretRevealed(eq(mockGame), eq(p2Turns)))
-                                        .thenReturn(false);
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p1Turns)))
+                                        .thenReturn(CompletableFuture.completedFuture(false));
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p2Turns)))
+                                        .thenReturn(CompletableFuture.completedFuture(false));
                         when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
 
                         // Act
@@ -570,6 +599,90 @@ class GameServiceTest {
                                         game.getWinner() == null &&
                                         game.getEndReason() == GameEndReason.DRAW));
                 }
+
+                @Test
+                @DisplayName("should use verdicts judged during the attack phase without calling the judge")
+                void shouldUseStoredVerdicts() {
+                        // Arrange
+                        Game mockGame = setupMockGame();
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+                        when(attackJudge.storedVerdict(mockGame, "player-1"))
+                                        .thenReturn(Optional.of(CompletableFuture.completedFuture(false)));
+                        when(attackJudge.storedVerdict(mockGame, "player-2"))
+                                        .thenReturn(Optional.of(CompletableFuture.completedFuture(true)));
+                        when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
+
+                        // Act
+                        gameService.determineWinner("game-1");
+
+                        // Assert
+                        verify(aiService, never()).checkSecretRevealedAsync(any(), anyList());
+                        verify(gameTurnRepo, never()).findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc(anyString(),
+                                        anyString(), any());
+                        verify(gameRepo).save(argThat(game -> game.getStatus() == GameStatus.COMPLETED &&
+                                        game.getWinner().getId().equals("player-2") &&
+                                        game.getEndReason() == GameEndReason.FULL_CONVICTION));
+                        verify(attackJudge).forget("game-1");
+                }
+
+                @Test
+                @DisplayName("should judge both players in one batched request when no verdicts are stored")
+                void shouldJudgeBothPlayersInOneRequest() {
+                        // Arrange
+                        ReflectionTestUtils.setField(gameService, "batchedJudging", true);
+                        Game mockGame = setupMockGame();
+                        List<GameTurn> p1Turns = List.of(new GameTurn());
+                        List<GameTurn> p2Turns = List.of(new GameTurn());
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+                        when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-1",
+                                        GamePhase.ATTACK))
+                                        .thenReturn(p1Turns);
+                        when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-2",
+                                        GamePhase.ATTACK))
+                                        .thenReturn(p2Turns);
+                        when(aiService.checkBothSecretsRevealedAsync(mockGame, p1Turns, p2Turns))
+                                        .thenReturn(CompletableFuture.completedFuture(
+                                                        new AiService.SecretVerdicts(true, false)));
+                        when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
+
+                        // Act
+                        gameService.determineWinner("game-1");
+
+                        // Assert
+                        verify(aiService, never()).checkSecretRevealedAsync(any(), anyList());
+                        verify(gameRepo).save(argThat(game -> game.getStatus() == GameStatus.COMPLETED &&
+                                        game.getWinner().getId().equals("player-1") &&
+                                        game.getEndReason() == GameEndReason.FULL_CONVICTION));
+                }
+
+                @Test
+                @DisplayName("should fail without saving when only one player's secret check fails")
+                void shouldFailWhenOnePlayerCheckFails() {
+                        // Arrange
+                        Game mockGame = setupMockGame();
+                        List<GameTurn> p1Turns = List.of(new GameTurn());
+                        List<GameTurn> p2Turns = List.of(new GameTurn());
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+                        when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-1",
+                                        GamePhase.ATTACK))
+                                        .thenReturn(p1Turns);
+                        when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-2",
+                                        GamePhase.ATTACK))
+                                        .thenReturn(p2Turns);
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p1Turns)))
+                                        .thenReturn(new CompletableFuture<>());
+                        when(aiService.checkSecretRevealedAsync(eq(mockGame), eq(p2Turns)))
+                                        .thenReturn(CompletableFuture.failedFuture(new RuntimeException("boom")));
+
+                        // Act & Assert
+                        RuntimeException exception = assertThrows(RuntimeException.class,
+                                        () -> gameService.determineWinner("game-1"));
+                        assertEquals("Failed to check secret revealed for player two", exception.getMessage());
+                        verify(gameRepo, never()).save(any(Game.class));
+                }
         }
 
         @Nested
@@ -596,12 +709,10 @@ class GameServiceTest {
                                         .maxCharsPerMessage(250)
                                         .status(GameStatus.DEFENSE_PHASE)
                                         .template(new ScenarioTemplate())
+                                        .playerOneDefenseTurns(5)
                                         .build();
 
                         when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-1",
-                                        GamePhase.DEFENSE))
-                                        .thenReturn(5);
 
                         // Act & Assert
                         IllegalStateException exception = assertThrows(IllegalStateException.class,
@@ -622,6 +733,7 @@ class GameServiceTest {
                                         .maxCharsPerMessage(250)
                                         .status(GameStatus.DEFENSE_PHASE)
                                         .template(new ScenarioTemplate())
+                                        .playerOneDefenseTurns(2)
                                         .build();
 
                         GameTurn mockTurn = GameTurn.builder()
@@ -635,11 +747,6 @@ class GameServiceTest {
                                         .build();
 
                         when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
-                        when(gameTurnRepo.countByGameIdAndPlayerIdAndPhase("game-1", "player-1",
-                                        GamePhase.DEFENSE))
-                                        .thenReturn(2) // Current count for validation
-                                        .thenReturn(3) // P1 turns for phase check
-                                        .thenReturn(2); // P2 turns for phase check
                         when(aiService.getResponse(mockGame, "player-1", "Test message", GamePhase.DEFENSE))
                                         .thenReturn("AI says no!");
                         when(gameTurnRepo.save(any(GameTurn.class))).thenReturn(mockTurn);
@@ -656,7 +763,469 @@ class GameServiceTest {
                                         turn.getTurnNumber() == 3 &&
                                         turn.getPlayerMessage().equals("Test message") &&
                                         turn.getAiResponse().equals("AI says no!")));
+                        // Nothing is broadcast without streaming
+                        verify(gameMetrics).recordTurn(eq(GamePhase.DEFENSE), anyLong(), anyLong(), eq(0L));
+                        verify(gameRepo).save(argThat(game -> game.getPlayerOneDefenseTurns() == 3));
                         assertEquals(mockTurn, result);
                 }
+
+                @Test
+                @DisplayName("should stream AI deltas to the game topic and persist the full reply")
+                void shouldStreamAiDeltasAndPersistFullReply() {
+                        // Arrange
+                        ReflectionTestUtils.setField(gameService, "streamingEnabled", true);
+                        Game mockGame = Game.builder()
+                                        .id("game-1")
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .phase(GamePhase.DEFENSE)
+                                        .maxTurnsPerPhase(5)
+                                        .maxCharsPerMessage(250)
+                                        .status(GameStatus.DEFENSE_PHASE)
+                                        .template(new ScenarioTemplate())
+                                        .build();
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+                        when(aiService.streamResponse(eq(mockGame), eq("player-1"), eq("Test message"),
+                                        eq(GamePhase.DEFENSE), any())).thenAnswer(invocation -> {
+                                                Consumer<String> onDelta = invocation.getArgument(4);
+                                                onDelta.accept("AI says ");
+                                                onDelta.accept("no!");
+                                                return "AI says no!";
+                                        });
+                        when(gameTurnRepo.save(any(GameTurn.class))).thenAnswer(invocation -> invocation.getArgument(0));
+                        when(userRepo.findById("player-1")).thenReturn(Optional.of(playerOne));
+
+                        // Act
+                        GameTurn result = gameService.submitTurn("game-1", "player-1", "Test message");
+
+                        // Assert
+                        verify(gameEventPublisher).publishAiDelta("game-1", "player-1", GamePhase.DEFENSE, 1, "AI says ");
+                        verify(gameEventPublisher).publishAiDelta("game-1", "player-1", GamePhase.DEFENSE, 1, "no!");
+                        verify(gameEventPublisher).publishAiDone("game-1", "player-1", GamePhase.DEFENSE, 1);
+                        verify(aiService, never()).getResponse(any(), anyString(), anyString(), any());
+                        assertEquals("AI says no!", result.getAiResponse());
+                }
+
+                @Test
+                @DisplayName("should commit the reservation before calling the LLM and store the turn after")
+                void shouldKeepTransactionsOutOfLlmCall() {
+                        // Arrange
+                        Game mockGame = Game.builder()
+                                        .id("game-1")
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .phase(GamePhase.DEFENSE)
+                                        .maxTurnsPerPhase(5)
+                                        .maxCharsPerMessage(250)
+                                        .status(GameStatus.DEFENSE_PHASE)
+                                        .build();
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+                        when(aiService.getResponse(mockGame, "player-1", "Test message", GamePhase.DEFENSE))
+                                        .thenReturn("AI says no!");
+                        when(gameTurnRepo.save(any(GameTurn.class))).thenAnswer(invocation -> invocation.getArgument(0));
+                        when(userRepo.findById("player-1")).thenReturn(Optional.of(playerOne));
+
+                        // Act
+                        gameService.submitTurn("game-1", "player-1", "Test message");
+
+                        // Assert
+                        var inOrder = inOrder(transactionManager, aiService, gameTurnRepo);
+                        inOrder.verify(transactionManager).commit(any());
+                        inOrder.verify(aiService).getResponse(mockGame, "player-1", "Test message", GamePhase.DEFENSE);
+                        inOrder.verify(transactionManager).getTransaction(any());
+                        inOrder.verify(gameTurnRepo).save(any(GameTurn.class));
+                        inOrder.verify(transactionManager).commit(any());
+                }
+
+                @Test
+                @DisplayName("should reject a turn stored by a duplicate submission while the reply was generated")
+                void shouldRejectConflictingTurn() {
+                        // Arrange
+                        Game mockGame = Game.builder()
+                                        .id("game-1")
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .phase(GamePhase.DEFENSE)
+                                        .maxTurnsPerPhase(5)
+                                        .maxCharsPerMessage(250)
+                                        .status(GameStatus.DEFENSE_PHASE)
+                                        .build();
+
+                        // The same turn was stored while the reply was generated
+                        Game advanced = Game.builder()
+                                        .id("game-1")
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .phase(GamePhase.DEFENSE)
+                                        .maxTurnsPerPhase(5)
+                                        .status(GameStatus.DEFENSE_PHASE)
+                                        .playerOneDefenseTurns(1)
+                                        .build();
+
+                        when(gameRepo.findById("game-1"))
+                                        .thenReturn(Optional.of(mockGame))
+                                        .thenReturn(Optional.of(advanced));
+                        when(aiService.getResponse(mockGame, "player-1", "Test message", GamePhase.DEFENSE))
+                                        .thenReturn("AI says no!");
+
+                        // Act & Assert
+                        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                                        () -> gameService.submitTurn("game-1", "player-1", "Test message"));
+                        assertEquals("Turn already submitted", exception.getMessage());
+                        verify(gameTurnRepo, never()).save(any(GameTurn.class));
+                        verify(transactionManager).rollback(any());
+                }
+
+                @Test
+                @DisplayName("should store the turn again when the other player's commit bumped the game's version")
+                void shouldRetryCommitOnVersionConflict() {
+                        // Arrange
+                        // A fresh copy per read, as each transaction loads its own
+                        when(gameRepo.findById("game-1"))
+                                        .thenAnswer(invocation -> Optional.of(Game.builder()
+                                                        .id("game-1")
+                                                        .playerOne(playerOne)
+                                                        .playerTwo(playerTwo)
+                                                        .phase(GamePhase.DEFENSE)
+                                                        .maxTurnsPerPhase(5)
+                                                        .maxCharsPerMessage(250)
+                                                        .status(GameStatus.DEFENSE_PHASE)
+                                                        .build()));
+                        when(aiService.getResponse(any(Game.class), eq("player-1"), eq("Test message"),
+                                        eq(GamePhase.DEFENSE)))
+                                        .thenReturn("AI says no!");
+                        when(gameTurnRepo.save(any(GameTurn.class))).thenAnswer(invocation -> invocation.getArgument(0));
+                        when(userRepo.findById("player-1")).thenReturn(Optional.of(playerOne));
+                        doNothing()
+                                        .doThrow(new ObjectOptimisticLockingFailureException(Game.class, "game-1"))
+                                        .doNothing()
+                                        .when(transactionManager).commit(any());
+
+                        // Act
+                        GameTurn result = gameService.submitTurn("game-1", "player-1", "Test message");
+
+                        // Assert
+                        verify(gameTurnRepo, times(2)).save(any(GameTurn.class));
+                        assertEquals(1, result.getTurnNumber());
+                }
+
+                @Test
+                @DisplayName("should transition once, in the background, when the turn completes the defense phase")
+                void shouldTransitionWhenTurnCompletesPhase() {
+                        // Arrange
+                        Game mockGame = Game.builder()
+                                        .id("game-1")
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .phase(GamePhase.DEFENSE)
+                                        .maxTurnsPerPhase(5)
+                                        .maxCharsPerMessage(250)
+                                        .status(GameStatus.DEFENSE_PHASE)
+                                        .playerOneDefenseTurns(4)
+                                        .playerTwoDefenseTurns(5)
+                                        .build();
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+                        when(aiService.getResponse(mockGame, "player-1", "Test message", GamePhase.DEFENSE))
+                                        .thenReturn("AI says no!");
+                        when(gameTurnRepo.save(any(GameTurn.class))).thenAnswer(invocation -> invocation.getArgument(0));
+                        when(userRepo.findById("player-1")).thenReturn(Optional.of(playerOne));
+                        GameService spyService = spy(gameService);
+                        doReturn(mockGame).when(spyService).transitionToAttack("game-1");
+
+                        // Act
+                        GameTurn result = spyService.submitTurn("game-1", "player-1", "Test message");
+
+                        // Assert
+                        // The transition runs in the background; the turn is returned without it
+                        assertEquals(5, result.getTurnNumber());
+                        verify(spyService, timeout(1000).times(1)).transitionToAttack("game-1");
+                        verify(gameEventPublisher, timeout(1000)).publishGameState(mockGame);
+                }
+        }
+
+        @Nested
+        @DisplayName("timers")
+        class TimerTests {
+                User playerOne = User.builder()
+                                .id("player-1")
+                                .build();
+
+                User playerTwo = User.builder()
+                                .id("player-2")
+                                .build();
+
+                @Test
+                @DisplayName("should schedule the end of the transition into the attack phase")
+                void shouldScheduleTransitionEnd() {
+                        // Arrange
+                        Game mockGame = Game.builder()
+                                        .id("game-1")
+                                        .phase(GamePhase.DEFENSE)
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .build();
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+                        when(aiService.summarizeDefenseAsync(anyList())).thenReturn(CompletableFuture.completedFuture("Summary"));
+                        when(gameRepo.save(any(Game.class))).thenReturn(mockGame);
+
+                        // Act
+                        gameService.transitionToAttack("game-1");
+
+                        // Assert
+                        verify(gameTimers).schedule(eq("game-1:transition"), eq(5000L), any());
+                }
+
+                @Test
+                @DisplayName("should end the transition, push the new state and start attack deadlines")
+                void shouldFinishTransition() {
+                        // Arrange
+                        ReflectionTestUtils.setField(gameService, "turnTimeoutMs", 60000L);
+                        Game mockGame = Game.builder()
+                                        .id("game-1")
+                                        .status(GameStatus.ATTACK_PHASE)
+                                        .phase(GamePhase.ATTACK)
+                                        .isTransitioning(true)
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .build();
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+                        when(gameRepo.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                        // Act
+                        gameService.finishTransition("game-1");
+
+                        // Assert
+                        verify(gameEventPublisher).publishGameState(argThat(game -> !game.getIsTransitioning()));
+                        verify(gameTimers).schedule(eq("game-1:turn:player-1"), eq(60000L), any());
+                        verify(gameTimers).schedule(eq("game-1:turn:player-2"), eq(60000L), any());
+                }
+
+                @Test
+                @DisplayName("should abandon the game in the opponent's favour when a player misses their deadline")
+                void shouldForfeitIdlePlayer() {
+                        // Arrange
+                        Game mockGame = Game.builder()
+                                        .id("game-1")
+                                        .status(GameStatus.DEFENSE_PHASE)
+                                        .phase(GamePhase.DEFENSE)
+                                        .maxTurnsPerPhase(5)
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .playerOneDefenseTurns(1)
+                                        .playerTwoDefenseTurns(2)
+                                        .build();
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+                        when(gameRepo.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                        // Act
+                        gameService.forfeitTurn("game-1", "player-1");
+
+                        // Assert
+                        verify(gameRepo).save(argThat(game -> game.getStatus() == GameStatus.ABANDONED &&
+                                        game.getWinner() == playerTwo &&
+                                        game.getEndReason() == GameEndReason.PLAYER_FORFEIT));
+                        verify(gameTimers).cancel("game-1:turn:player-2");
+                        verify(gameEventPublisher).publishGameState(mockGame);
+                }
+
+                @Test
+                @DisplayName("should leave a game that ended just before the forfeit was applied alone")
+                void shouldNotForfeitJustEndedGame() {
+                        // Arrange
+                        Game inProgress = Game.builder()
+                                        .id("game-1")
+                                        .status(GameStatus.ATTACK_PHASE)
+                                        .phase(GamePhase.ATTACK)
+                                        .maxTurnsPerPhase(5)
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .build();
+                        Game justEnded = Game.builder()
+                                        .id("game-1")
+                                        .status(GameStatus.COMPLETED)
+                                        .phase(GamePhase.ATTACK)
+                                        .maxTurnsPerPhase(5)
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .winner(playerTwo)
+                                        .endReason(GameEndReason.FULL_CONVICTION)
+                                        .build();
+
+                        when(gameRepo.findById("game-1"))
+                                        .thenReturn(Optional.of(inProgress))
+                                        .thenReturn(Optional.of(justEnded));
+                        when(gameRepo.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                        // Act
+                        gameService.forfeitTurn("game-1", "player-1");
+
+                        // Assert
+                        assertEquals(GameStatus.COMPLETED, justEnded.getStatus());
+                        assertEquals(GameEndReason.FULL_CONVICTION, justEnded.getEndReason());
+                        verify(profileStatsAggregator, never()).gameEnded(any());
+                        verify(gameEventPublisher, never()).publishGameState(any());
+                }
+
+                @Test
+                @DisplayName("should not forfeit a player who has played all their turns in the phase")
+                void shouldNotForfeitFinishedPlayer() {
+                        // Arrange
+                        Game mockGame = Game.builder()
+                                        .id("game-1")
+                                        .status(GameStatus.DEFENSE_PHASE)
+                                        .phase(GamePhase.DEFENSE)
+                                        .maxTurnsPerPhase(5)
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .playerOneDefenseTurns(5)
+                                        .build();
+
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(mockGame));
+
+                        // Act
+                        gameService.forfeitTurn("game-1", "player-1");
+
+                        // Assert
+                        verify(gameRepo, never()).save(any(Game.class));
+                        verify(gameEventPublisher, never()).publishGameState(any());
+                }
+
+                @Test
+                @DisplayName("should retry a failed phase job and abandon the game once it keeps failing")
+                void shouldRetryFailedPhaseJob() {
+                        // Arrange
+                        GameService spyService = spy(gameService);
+                        doThrow(new RuntimeException("Failed to check secret revealed for player one"))
+                                        .when(spyService).determineWinner("game-1");
+                        Game stuck = Game.builder()
+                                        .id("game-1")
+                                        .status(GameStatus.ATTACK_PHASE)
+                                        .phase(GamePhase.ATTACK)
+                                        .maxTurnsPerPhase(5)
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .playerOneAttackTurns(5)
+                                        .playerTwoAttackTurns(5)
+                                        .build();
+                        when(gameRepo.findById("game-1")).thenReturn(Optional.of(stuck));
+                        when(gameRepo.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+                        // Act
+                        spyService.runPhaseJob("game-1", GamePhase.ATTACK, 1);
+                        spyService.runPhaseJob("game-1", GamePhase.ATTACK, 3);
+
+                        // Assert
+                        verify(gameTimers).schedule(eq("game-1:phase"), eq(2000L), any());
+                        verify(gameEventPublisher).publishPhaseProgress("game-1", GamePhase.ATTACK, "started", 1);
+                        verify(gameEventPublisher).publishPhaseProgress("game-1", GamePhase.ATTACK, "failed", 3);
+                        verify(gameRepo).save(argThat(game -> game.getStatus() == GameStatus.ABANDONED &&
+                                        game.getWinner() == null));
+                        verify(gameTimers).cancel("game-1:phase");
+                        verify(profileStatsAggregator, never()).gameEnded(any());
+                        verify(gameEventPublisher).publishGameState(stuck);
+                }
+
+                @Test
+                @DisplayName("should rebuild transition and turn timers for games in progress on startup")
+                void shouldRestoreTimers() {
+                        // Arrange
+                        ReflectionTestUtils.setField(gameService, "turnTimeoutMs", 60000L);
+                        Game transitioning = Game.builder()
+                                        .id("game-1")
+                                        .status(GameStatus.ATTACK_PHASE)
+                                        .phase(GamePhase.ATTACK)
+                                        .isTransitioning(true)
+                                        .transitionEndsAt(LocalDateTime.now().minusSeconds(1))
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .build();
+                        Game defending = Game.builder()
+                                        .id("game-2")
+                                        .status(GameStatus.DEFENSE_PHASE)
+                                        .phase(GamePhase.DEFENSE)
+                                        .isTransitioning(false)
+                                        .maxTurnsPerPhase(5)
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .playerOneDefenseTurns(5)
+                                        .playerTwoDefenseTurns(3)
+                                        .build();
+
+                        when(gameRepo.findByStatusInWithPlayers(anyCollection()))
+                                        .thenReturn(List.of(transitioning, defending));
+
+                        // Act
+                        gameService.restoreTimers();
+
+                        // Assert
+                        verify(gameTimers).schedule(eq("game-1:transition"), longThat(delay -> delay <= 0), any());
+                        verify(gameTimers).schedule(eq("game-2:turn:player-2"), eq(60000L), any());
+                        verify(gameTimers, never()).schedule(eq("game-2:turn:player-1"), anyLong(), any());
+                }
+        }
+
+        @Nested
+        @DisplayName("getSnapshot")
+        class SnapshotTests {
+                User playerOne = User.builder()
+                                .id("player-1")
+                                .build();
+
+                User playerTwo = User.builder()
+                                .id("player-2")
+                                .build();
+
+                @Test
+                @DisplayName("should build the snapshot from memory while the engine holds the game")
+                void shouldSnapshotGameInMemory() {
+                        // Arrange
+                        Game game = Game.builder()
+                                        .id("game-1")
+                                        .playerOne(playerOne)
+                                        .playerTwo(playerTwo)
+                                        .template(ScenarioTemplate.builder().id("template-1").name("Bank Vault").build())
+                                        .generatedCharacter("A bank teller")
+                                        .generatedSecret("swordfish")
+                                        .status(GameStatus.DEFENSE_PHASE)
+                                        .phase(GamePhase.DEFENSE)
+                                        .playerTwoDefenseTurns(2)
+                                        .build();
+                        when(gameEngine.find("game-1")).thenReturn(Optional.of(game));
+
+                        // Act
+                        GameSnapshot snapshot = gameService.getSnapshot("game-1");
+
+                        // Assert
+                        assertEquals("player-2", snapshot.getPlayerTwoId());
+                        assertEquals("Bank Vault", snapshot.getTemplateName());
+                        assertEquals(2, snapshot.getPlayerTwoDefenseTurns());
+                        assertTrue(snapshot.hasPlayer("player-1"));
+                        assertFalse(snapshot.hasPlayer("player-3"));
+                        verifyNoInteractions(gameRepo);
+                }
+
+                @Test
+                @DisplayName("should project the snapshot from the database otherwise")
+                void shouldProjectStoredGame() {
+                        // Arrange
+                        GameSnapshot stored = new GameSnapshot("game-1", "player-1", "player-2", "Bank Vault",
+                                        "A bank teller", GameStatus.COMPLETED, GamePhase.ATTACK, 5, 250, 5, 5, 5, 5,
+                                        false, null, "player-1", GameEndReason.FULL_CONVICTION, LocalDateTime.now());
+                        when(gameEngine.find("game-1")).thenReturn(Optional.empty());
+                        when(gameRepo.findSnapshotById("game-1")).thenReturn(Optional.of(stored));
+
+                        // Act
+                        GameSnapshot snapshot = gameService.getSnapshot("game-1");
+
+                        // Assert
+                        assertSame(stored, snapshot);
+                        verify(gameRepo, never()).findById(anyString());
+                }
         }
 }
@@ -0,0 +1,80 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GameTimers Tests")
+class GameTimersTest {
+
+        private GameTimers gameTimers;
+
+        @BeforeEach
+        void setUp() {
+                // A small wheel, so timers further out wrap around it
+                gameTimers = new GameTimers(5, 8, 1);
+        }
+
+        @AfterEach
+        void tearDown() {
+                gameTimers.shutdown();
+        }
+
+        @Test
+        @DisplayName("should fire a timer once its delay has passed, including after whole turns of the wheel")
+        void shouldFireWhenDue() throws InterruptedException {
+                // Arrange
+                CountDownLatch fired = new CountDownLatch(2);
+                long started = System.nanoTime();
+
+                // Act
+                gameTimers.schedule("soon", 10, fired::countDown);
+                gameTimers.schedule("later", 120, fired::countDown);
+
+                // Assert
+                assertTrue(fired.await(2, TimeUnit.SECONDS));
+                assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 120);
+                assertEquals(0, gameTimers.getPendingCount());
+        }
+
+        @Test
+        @DisplayName("should replace the pending timer when a key is scheduled again")
+        void shouldReplaceTimerUnderSameKey() throws InterruptedException {
+                // Arrange
+                AtomicInteger replaced = new AtomicInteger();
+                CountDownLatch fired = new CountDownLatch(1);
+
+                // Act
+                gameTimers.schedule("game-1:turn:player-1", 20, replaced::incrementAndGet);
+                gameTimers.schedule("game-1:turn:player-1", 60, fired::countDown);
+
+                // Assert
+                assertTrue(fired.await(2, TimeUnit.SECONDS));
+                assertEquals(0, replaced.get());
+        }
+
+        @Test
+        @DisplayName("should not fire a cancelled timer")
+        void shouldNotFireCancelledTimer() throws InterruptedException {
+                // Arrange
+                AtomicInteger cancelled = new AtomicInteger();
+                CountDownLatch fired = new CountDownLatch(1);
+                gameTimers.schedule("game-1:transition", 20, cancelled::incrementAndGet);
+
+                // Act
+                gameTimers.cancel("game-1:transition");
+                gameTimers.schedule("game-2:transition", 60, fired::countDown);
+
+                // Assert
+                assertFalse(gameTimers.isPending("game-1:transition"));
+                assertTrue(fired.await(2, TimeUnit.SECONDS));
+                assertEquals(0, cancelled.get());
+        }
+}
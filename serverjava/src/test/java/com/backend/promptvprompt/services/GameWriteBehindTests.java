@@ -0,0 +1,161 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameStatus;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.models.User;
+import com.backend.promptvprompt.repos.GameRepo;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GameWriteBehind Tests")
+class GameWriteBehindTest {
+
+        @Mock
+        private GameRepo gameRepo;
+
+        @Mock
+        private GameTurnRepo gameTurnRepo;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        private GameWriteBehind writeBehind;
+        private Game game;
+        private User player;
+
+        @BeforeEach
+        void setUp() {
+                player = User.builder().id("player-1").build();
+                // Flushed by hand in the tests
+                writeBehind = new GameWriteBehind(gameRepo, gameTurnRepo, transactionManager, 60000, 500, 3);
+                game = Game.builder()
+                                .id("game-1")
+                                .status(GameStatus.DEFENSE_PHASE)
+                                .phase(GamePhase.DEFENSE)
+                                .isTransitioning(false)
+                                .build();
+        }
+
+        @AfterEach
+        void tearDown() {
+                writeBehind.shutdown();
+        }
+
+        private void verifyStateWritten(GameStatus status, GamePhase phase, boolean isTransitioning, int times) {
+                verify(gameRepo, times(times)).updateState(eq("game-1"), eq(status), eq(phase), any(), any(), any(),
+                                any(), eq(isTransitioning), any(), any(), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should write a game changed several times before a flush once, with its latest state")
+        void shouldCoalesceGameUpdates() {
+                // Arrange
+                GameTurn turn = GameTurn.builder().game(game).turnNumber(1).build();
+                writeBehind.insert(turn);
+                writeBehind.update(game);
+                game.setStatus(GameStatus.ATTACK_PHASE);
+                game.setPhase(GamePhase.ATTACK);
+                game.setIsTransitioning(true);
+                writeBehind.update(game);
+
+                // Act
+                writeBehind.flush();
+
+                // Assert
+                verify(gameTurnRepo).saveAll(List.of(turn));
+                verifyStateWritten(GameStatus.ATTACK_PHASE, GamePhase.ATTACK, true, 1);
+                verifyNoMoreInteractions(gameRepo);
+                assertEquals(0, writeBehind.getPendingCount());
+        }
+
+        @Test
+        @DisplayName("should write the state as it was queued, not as the game was changed since")
+        void shouldWriteQueuedState() {
+                // Arrange
+                writeBehind.update(game);
+                // Changed without being queued again, e.g. midway through a change in the mailbox
+                game.setStatus(GameStatus.ATTACK_PHASE);
+
+                // Act
+                writeBehind.flush();
+
+                // Assert
+                verifyStateWritten(GameStatus.DEFENSE_PHASE, GamePhase.DEFENSE, false, 1);
+        }
+
+        @Test
+        @DisplayName("should put a failed flush back and write it on the next one")
+        void shouldRequeueFailedFlush() {
+                // Arrange
+                GameTurn turn = GameTurn.builder().game(game).turnNumber(1).build();
+                when(gameTurnRepo.saveAll(anyList()))
+                                .thenThrow(new RuntimeException("connection reset"))
+                                .thenReturn(List.of(turn));
+                writeBehind.insert(turn);
+                writeBehind.update(game);
+
+                // Act
+                assertThrows(RuntimeException.class, () -> writeBehind.flush());
+                int pendingAfterFailure = writeBehind.getPendingCount();
+                writeBehind.flush();
+
+                // Assert
+                assertEquals(2, pendingAfterFailure);
+                verify(gameTurnRepo, times(2)).saveAll(List.of(turn));
+                verifyStateWritten(GameStatus.DEFENSE_PHASE, GamePhase.DEFENSE, false, 1);
+                verify(transactionManager).rollback(any());
+                assertEquals(0, writeBehind.getPendingCount());
+        }
+
+        @Test
+        @DisplayName("should retry a failed batch row by row and drop a turn that keeps failing")
+        void shouldIsolateAndDropBadTurn() {
+                // Arrange
+                GameTurn good = GameTurn.builder().game(game).player(player).turnNumber(1).aiResponse("OK").build();
+                GameTurn bad = GameTurn.builder().game(game).player(player).turnNumber(2).build();
+                GameTurn later = GameTurn.builder().game(game).player(player).turnNumber(3).aiResponse("OK").build();
+                when(gameTurnRepo.saveAll(anyList())).thenAnswer(invocation -> {
+                        List<GameTurn> turns = invocation.getArgument(0);
+                        if (turns.contains(bad)) {
+                                throw new RuntimeException("null value in column \"ai_response\"");
+                        }
+                        return turns;
+                });
+                writeBehind.insert(good);
+                writeBehind.insert(bad);
+                writeBehind.insert(later);
+                writeBehind.update(game);
+
+                // Act
+                assertThrows(RuntimeException.class, () -> writeBehind.flush());
+                // The good turn goes through alone, then the bad turn fails again and moves behind the later one
+                assertThrows(RuntimeException.class, () -> writeBehind.flush());
+                int pendingBeforeDrop = writeBehind.getPendingCount();
+                writeBehind.flush();
+
+                // Assert
+                assertEquals(3, pendingBeforeDrop);
+                verify(gameTurnRepo).saveAll(List.of(good));
+                verify(gameTurnRepo, times(2)).saveAll(List.of(bad));
+                verify(gameTurnRepo).saveAll(List.of(later));
+                verifyStateWritten(GameStatus.DEFENSE_PHASE, GamePhase.DEFENSE, false, 1);
+                assertEquals(0, writeBehind.getPendingCount());
+        }
+}
@@ -0,0 +1,168 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.backend.promptvprompt.models.Game;
+import com.backend.promptvprompt.models.GameStatus;
+import com.backend.promptvprompt.models.User;
+import com.backend.promptvprompt.repos.GameStatsRecordRepo;
+import com.backend.promptvprompt.repos.UserProfileRepo;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProfileStatsAggregator Tests")
+class ProfileStatsAggregatorTest {
+
+        @Mock
+        private UserProfileRepo userProfileRepo;
+
+        @Mock
+        private GameStatsRecordRepo gameStatsRecordRepo;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        private ProfileStatsAggregator aggregator;
+
+        @BeforeEach
+        void setUp() {
+                // Flushed by hand in the tests
+                aggregator = new ProfileStatsAggregator(userProfileRepo, gameStatsRecordRepo, transactionManager,
+                                60000, 200, 3);
+        }
+
+        @AfterEach
+        void tearDown() {
+                aggregator.shutdown();
+        }
+
+        private Game finishedGame(String gameId, String playerOneId, String playerTwoId, String winnerId) {
+                User playerOne = User.builder().id(playerOneId).build();
+                User playerTwo = User.builder().id(playerTwoId).build();
+                return Game.builder()
+                                .id(gameId)
+                                .playerOne(playerOne)
+                                .playerTwo(playerTwo)
+                                .status(GameStatus.COMPLETED)
+                                .winner(winnerId == null ? null : winnerId.equals(playerOneId) ? playerOne : playerTwo)
+                                .build();
+        }
+
+        @Test
+        @DisplayName("should add up a batch of games into one update per player")
+        void shouldCoalescePerPlayer() {
+                // Arrange
+                when(gameStatsRecordRepo.claim(anyString(), any())).thenReturn(1);
+                when(userProfileRepo.addStats(anyString(), anyInt(), anyInt(), anyInt(), anyInt(), any(), any()))
+                                .thenReturn(1);
+                aggregator.gameEnded(finishedGame("game-1", "player-1", "player-2", "player-1"));
+                aggregator.gameEnded(finishedGame("game-2", "player-1", "player-3", null));
+
+                // Act
+                aggregator.flush();
+
+                // Assert
+                verify(userProfileRepo).addStats(eq("player-1"), eq(2), eq(1), eq(0), eq(1), any(), any());
+                verify(userProfileRepo).addStats(eq("player-2"), eq(1), eq(0), eq(1), eq(0), any(), any());
+                verify(userProfileRepo).addStats(eq("player-3"), eq(1), eq(0), eq(0), eq(1), any(), any());
+                verifyNoMoreInteractions(userProfileRepo);
+                assertEquals(0, aggregator.getPendingCount());
+        }
+
+        @Test
+        @DisplayName("should not count a game that was already recorded")
+        void shouldCountEachGameOnce() {
+                // Arrange
+                when(gameStatsRecordRepo.claim(eq("game-1"), any())).thenReturn(1).thenReturn(0);
+                when(userProfileRepo.addStats(anyString(), anyInt(), anyInt(), anyInt(), anyInt(), any(), any()))
+                                .thenReturn(1);
+                Game game = finishedGame("game-1", "player-1", "player-2", "player-2");
+                aggregator.gameEnded(game);
+                aggregator.gameEnded(game);
+
+                // Act
+                aggregator.flush();
+
+                // Assert
+                verify(userProfileRepo).addStats(eq("player-1"), eq(1), eq(0), eq(1), eq(0), any(), any());
+                verify(userProfileRepo).addStats(eq("player-2"), eq(1), eq(1), eq(0), eq(0), any(), any());
+        }
+
+        @Test
+        @DisplayName("should keep the results of a failed flush for the next one")
+        void shouldRequeueFailedFlush() {
+                // Arrange
+                when(gameStatsRecordRepo.claim(eq("game-1"), any()))
+                                .thenThrow(new RuntimeException("connection reset"))
+                                .thenReturn(1);
+                when(userProfileRepo.addStats(anyString(), anyInt(), anyInt(), anyInt(), anyInt(), any(), any()))
+                                .thenReturn(1);
+                aggregator.gameEnded(finishedGame("game-1", "player-1", "player-2", "player-1"));
+
+                // Act
+                assertThrows(RuntimeException.class, () -> aggregator.flush());
+                int pendingAfterFailure = aggregator.getPendingCount();
+                aggregator.flush();
+
+                // Assert
+                assertEquals(1, pendingAfterFailure);
+                verify(userProfileRepo).addStats(eq("player-1"), eq(1), eq(1), eq(0), eq(0), any(), any());
+                verify(transactionManager).rollback(any());
+        }
+
+        @Test
+        @DisplayName("should retry a failed batch game by game and drop a game that keeps failing")
+        void shouldIsolateAndDropPoisonResult() {
+                // Arrange
+                when(gameStatsRecordRepo.claim(eq("game-1"), any())).thenReturn(1);
+                when(gameStatsRecordRepo.claim(eq("game-2"), any())).thenThrow(new RuntimeException("bad row"));
+                when(gameStatsRecordRepo.claim(eq("game-3"), any())).thenReturn(1);
+                when(userProfileRepo.addStats(anyString(), anyInt(), anyInt(), anyInt(), anyInt(), any(), any()))
+                                .thenReturn(1);
+                aggregator.gameEnded(finishedGame("game-1", "player-1", "player-2", "player-1"));
+                aggregator.gameEnded(finishedGame("game-2", "player-3", "player-4", "player-3"));
+                aggregator.gameEnded(finishedGame("game-3", "player-5", "player-6", "player-5"));
+
+                // Act
+                assertThrows(RuntimeException.class, () -> aggregator.flush());
+                // game-1 goes through alone, then game-2 fails again and moves behind game-3
+                assertThrows(RuntimeException.class, () -> aggregator.flush());
+                int pendingBeforeDrop = aggregator.getPendingCount();
+                aggregator.flush();
+
+                // Assert
+                assertEquals(2, pendingBeforeDrop);
+                verify(userProfileRepo).addStats(eq("player-1"), eq(1), eq(1), eq(0), eq(0), any(), any());
+                verify(userProfileRepo).addStats(eq("player-5"), eq(1), eq(1), eq(0), eq(0), any(), any());
+                verify(userProfileRepo, never()).addStats(eq("player-3"), anyInt(), anyInt(), anyInt(), anyInt(),
+                                any(), any());
+                verify(gameStatsRecordRepo, times(3)).claim(eq("game-2"), any());
+                assertEquals(0, aggregator.getPendingCount());
+        }
+
+        @Test
+        @DisplayName("should ignore games that have not ended")
+        void shouldIgnoreGamesInProgress() {
+                // Arrange
+                Game game = finishedGame("game-1", "player-1", "player-2", null);
+                game.setStatus(GameStatus.ATTACK_PHASE);
+
+                // Act
+                aggregator.gameEnded(game);
+                aggregator.flush();
+
+                // Assert
+                assertEquals(0, aggregator.getPendingCount());
+                verifyNoInteractions(gameStatsRecordRepo, userProfileRepo);
+        }
+}
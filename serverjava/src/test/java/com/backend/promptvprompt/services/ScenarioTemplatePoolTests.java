@@ -0,0 +1,118 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.backend.promptvprompt.models.ScenarioTemplate;
+import com.backend.promptvprompt.repos.ScenarioTemplateRepo;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScenarioTemplatePool Tests")
+class ScenarioTemplatePoolTest {
+
+        @Mock
+        private ScenarioTemplateRepo scenarioTemplateRepo;
+
+        private ScenarioTemplatePool pool;
+
+        @BeforeEach
+        void setUp() {
+                // Refreshed by hand in the tests
+                pool = new ScenarioTemplatePool(scenarioTemplateRepo, 60000);
+        }
+
+        @AfterEach
+        void tearDown() {
+                pool.shutdown();
+        }
+
+        private ScenarioTemplate template(String id, Map<String, Object> variables) {
+                return ScenarioTemplate.builder()
+                                .id(id)
+                                .name("template-" + id)
+                                .variables(variables)
+                                .build();
+        }
+
+        @Test
+        @DisplayName("should load the active templates on first use and pick from memory after that")
+        void shouldLoadOnceAndPickFromMemory() {
+                // Arrange
+                ScenarioTemplate bank = template("t-1", Map.of(
+                                "role", List.of("bank teller", "vault guard"),
+                                "password", List.of("swordfish")));
+                when(scenarioTemplateRepo.findByIsActiveTrue()).thenReturn(List.of(bank));
+
+                // Act
+                ScenarioTemplatePool.Scenario first = pool.randomScenario();
+                ScenarioTemplatePool.Scenario second = pool.randomScenario();
+
+                // Assert
+                assertSame(bank, first.template());
+                assertSame(bank, second.template());
+                assertTrue(List.of("bank teller", "vault guard").contains(first.character()));
+                assertEquals("swordfish", first.secret());
+                verify(scenarioTemplateRepo, times(1)).findByIsActiveTrue();
+        }
+
+        @Test
+        @DisplayName("should leave out templates without roles or passwords")
+        void shouldSkipIncompleteTemplates() {
+                // Arrange
+                ScenarioTemplate noPasswords = template("t-1", Map.of("role", List.of("guard")));
+                ScenarioTemplate complete = template("t-2", Map.of(
+                                "role", List.of("guard"),
+                                "password", List.of("hunter2")));
+                when(scenarioTemplateRepo.findByIsActiveTrue()).thenReturn(List.of(noPasswords, complete));
+
+                // Act
+                pool.refresh();
+
+                // Assert
+                assertEquals(1, pool.size());
+                assertSame(complete, pool.randomScenario().template());
+        }
+
+        @Test
+        @DisplayName("should pick up changed templates on refresh")
+        void shouldReplaceTemplatesOnRefresh() {
+                // Arrange
+                ScenarioTemplate before = template("t-1", Map.of("role", List.of("guard"), "password", List.of("a")));
+                ScenarioTemplate after = template("t-2", Map.of("role", List.of("clerk"), "password", List.of("b")));
+                when(scenarioTemplateRepo.findByIsActiveTrue())
+                                .thenReturn(List.of(before))
+                                .thenReturn(List.of(after));
+                pool.refresh();
+
+                // Act
+                pool.refresh();
+
+                // Assert
+                ScenarioTemplatePool.Scenario scenario = pool.randomScenario();
+                assertSame(after, scenario.template());
+                assertEquals("clerk", scenario.character());
+                assertEquals("b", scenario.secret());
+        }
+
+        @Test
+        @DisplayName("should throw when there are no active templates")
+        void shouldThrowWhenEmpty() {
+                // Arrange
+                when(scenarioTemplateRepo.findByIsActiveTrue()).thenReturn(List.of());
+
+                // Act & Assert
+                RuntimeException exception = assertThrows(RuntimeException.class, () -> pool.randomScenario());
+                assertEquals("No templates available", exception.getMessage());
+        }
+}
@@ -0,0 +1,95 @@
+package com.backend.promptvprompt.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.backend.promptvprompt.models.GamePhase;
+import com.backend.promptvprompt.models.GameTurn;
+import com.backend.promptvprompt.repos.GameTurnRepo;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TranscriptStore Tests")
+class TranscriptStoreTest {
+
+        @Mock
+        private GameTurnRepo gameTurnRepo;
+
+        private TranscriptStore transcriptStore;
+
+        @BeforeEach
+        void setUp() {
+                transcriptStore = new TranscriptStore(gameTurnRepo, 100);
+        }
+
+        private GameTurn turn(int turnNumber, String message, String response) {
+                return GameTurn.builder()
+                                .phase(GamePhase.DEFENSE)
+                                .turnNumber(turnNumber)
+                                .playerMessage(message)
+                                .aiResponse(response)
+                                .build();
+        }
+
+        @Test
+        @DisplayName("should load a transcript from the database once and then serve appends from memory")
+        void shouldLoadOnceAndAppendInMemory() {
+                // Arrange
+                when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-1",
+                                GamePhase.DEFENSE))
+                                .thenReturn(List.of(turn(1, "hi", "hello")));
+
+                // Act
+                transcriptStore.history("game-1", "player-1", GamePhase.DEFENSE, 5);
+                transcriptStore.append(turn(2, "secret?", "never"), "game-1", "player-1", 5);
+                List<TranscriptStore.Exchange> history = transcriptStore.history("game-1", "player-1",
+                                GamePhase.DEFENSE, 5);
+
+                // Assert
+                verify(gameTurnRepo, times(1)).findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1",
+                                "player-1", GamePhase.DEFENSE);
+                assertEquals(List.of(new TranscriptStore.Exchange("hi", "hello"),
+                                new TranscriptStore.Exchange("secret?", "never")), history);
+        }
+
+        @Test
+        @DisplayName("should not duplicate a turn recorded twice")
+        void shouldNotDuplicateTurns() {
+                // Arrange
+                when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-1",
+                                GamePhase.DEFENSE))
+                                .thenReturn(List.of(turn(1, "hi", "hello")));
+
+                // Act
+                transcriptStore.append(turn(1, "hi", "hello"), "game-1", "player-1", 5);
+
+                // Assert
+                assertEquals(1, transcriptStore.history("game-1", "player-1", GamePhase.DEFENSE, 5).size());
+        }
+
+        @Test
+        @DisplayName("should rebuild from the database after the game is evicted")
+        void shouldRebuildAfterEviction() {
+                // Arrange
+                when(gameTurnRepo.findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1", "player-1",
+                                GamePhase.DEFENSE))
+                                .thenReturn(List.of());
+
+                // Act
+                transcriptStore.history("game-1", "player-1", GamePhase.DEFENSE, 5);
+                transcriptStore.evict("game-1");
+                transcriptStore.history("game-1", "player-1", GamePhase.DEFENSE, 5);
+
+                // Assert
+                verify(gameTurnRepo, times(2)).findByGameIdAndPlayerIdAndPhaseOrderByTurnNumberAsc("game-1",
+                                "player-1", GamePhase.DEFENSE);
+        }
+}
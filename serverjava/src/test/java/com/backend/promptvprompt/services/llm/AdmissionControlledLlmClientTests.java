@@ -0,0 +1,235 @@
+package com.backend.promptvprompt.services.llm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.backend.promptvprompt.exceptions.LlmException;
+import com.backend.promptvprompt.exceptions.LlmRejectedException;
+import com.backend.promptvprompt.services.GameMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdmissionControlledLlmClient Tests")
+class AdmissionControlledLlmClientTest {
+
+        private AdmissionControlledLlmClient admissionClient;
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        /**
+         * Records every call that gets through; each call completes only when the test says so.
+         */
+        private static class ControlledClient implements LlmClient {
+                private final List<LlmRequest> started = new CopyOnWriteArrayList<>();
+                private final List<CompletableFuture<LlmResponse>> responses = new CopyOnWriteArrayList<>();
+
+                @Override
+                public String getModel() {
+                        return "controlled";
+                }
+
+                @Override
+                public CompletableFuture<LlmResponse> complete(LlmRequest request) {
+                        CompletableFuture<LlmResponse> response = new CompletableFuture<>();
+                        started.add(request);
+                        responses.add(response);
+                        return response;
+                }
+
+                @Override
+                public CompletableFuture<LlmResponse> stream(LlmRequest request, Consumer<String> onDelta) {
+                        return complete(request);
+                }
+        }
+
+        @AfterEach
+        void tearDown() {
+                admissionClient.shutdown();
+        }
+
+        private AdmissionControlledLlmClient client(ControlledClient delegate, long tokensPerMinute,
+                        int concurrency, long maxQueueWaitMs) {
+                admissionClient = new AdmissionControlledLlmClient(delegate, new GameMetrics(meterRegistry), 1000, tokensPerMinute,
+                                concurrency, 1, concurrency, 100, maxQueueWaitMs);
+                return admissionClient;
+        }
+
+        private LlmRequest request(LlmCallType callType) {
+                return LlmRequest.builder()
+                                .callType(callType)
+                                .messages(List.of(new LlmMessage("user", "hello")))
+                                .maxTokens(50)
+                                .build();
+        }
+
+        @Test
+        @DisplayName("should hold calls beyond the concurrency limit until one finishes")
+        void shouldLimitConcurrency() {
+                // Arrange
+                ControlledClient delegate = new ControlledClient();
+                AdmissionControlledLlmClient client = client(delegate, 100000, 1, 10000);
+
+                // Act
+                CompletableFuture<LlmResponse> first = client.complete(request(LlmCallType.RESPONSE));
+                CompletableFuture<LlmResponse> second = client.complete(request(LlmCallType.RESPONSE));
+
+                // Assert
+                assertEquals(1, delegate.started.size());
+                assertEquals(1, client.getQueueDepth());
+
+                delegate.responses.get(0).complete(new LlmResponse("one", "stop"));
+                assertEquals("one", first.join().getContent());
+                assertEquals(2, delegate.started.size());
+                assertEquals(0, client.getQueueDepth());
+
+                delegate.responses.get(1).complete(new LlmResponse("two", "stop"));
+                assertEquals("two", second.join().getContent());
+        }
+
+        @Test
+        @DisplayName("should start queued replies before queued judging")
+        void shouldPrioritizeResponses() {
+                // Arrange
+                ControlledClient delegate = new ControlledClient();
+                AdmissionControlledLlmClient client = client(delegate, 100000, 1, 10000);
+                client.complete(request(LlmCallType.DEFENSE_SUMMARY));
+
+                // Act
+                client.complete(request(LlmCallType.SECRET_JUDGE));
+                client.complete(request(LlmCallType.RESPONSE));
+                delegate.responses.get(0).complete(new LlmResponse("summary", "stop"));
+
+                // Assert
+                assertEquals(LlmCallType.RESPONSE, delegate.started.get(1).getCallType());
+                assertEquals(1, client.getQueueDepth(LlmCallType.SECRET_JUDGE));
+                assertEquals(0, client.getQueueDepth(LlmCallType.RESPONSE));
+        }
+
+        @Test
+        @DisplayName("should fail a call that waits past its deadline")
+        void shouldFailAfterQueueDeadline() {
+                // Arrange
+                ControlledClient delegate = new ControlledClient();
+                AdmissionControlledLlmClient client = client(delegate, 100000, 1, 50);
+                client.complete(request(LlmCallType.RESPONSE));
+
+                // Act
+                CompletableFuture<LlmResponse> queued = client.complete(request(LlmCallType.SECRET_JUDGE));
+
+                // Assert
+                CompletionException exception = assertThrows(CompletionException.class, queued::join);
+                LlmRejectedException rejection = assertInstanceOf(LlmRejectedException.class, exception.getCause());
+                assertFalse(rejection.isRetryable());
+                assertEquals(1, delegate.started.size());
+                assertEquals(1, client.getRejectedCount());
+        }
+
+        @Test
+        @DisplayName("should fail a lower-priority call past its deadline while a reply waits ahead of it")
+        void shouldExpireWaitersBehindBlockedHead() throws InterruptedException {
+                // Arrange
+                ControlledClient delegate = new ControlledClient();
+                AdmissionControlledLlmClient client = client(delegate, 100000, 1, 300);
+                client.complete(request(LlmCallType.RESPONSE));
+                CompletableFuture<LlmResponse> judge = client.complete(request(LlmCallType.SECRET_JUDGE));
+                Thread.sleep(200);
+                // Ahead of the judge in the queue, waiting for the call in flight, with time left
+                CompletableFuture<LlmResponse> reply = client.complete(request(LlmCallType.RESPONSE));
+
+                // Act
+                CompletionException exception = assertThrows(CompletionException.class, judge::join);
+
+                // Assert
+                assertInstanceOf(LlmRejectedException.class, exception.getCause());
+                assertFalse(reply.isDone());
+                assertEquals(1, client.getQueueDepth(LlmCallType.RESPONSE));
+                assertEquals(0, client.getQueueDepth(LlmCallType.SECRET_JUDGE));
+        }
+
+        @Test
+        @DisplayName("should hold calls that exceed the tokens-per-minute budget")
+        void shouldEnforceTokenBudget() {
+                // Arrange
+                ControlledClient delegate = new ControlledClient();
+                AdmissionControlledLlmClient client = client(delegate, 80, 16, 10000);
+
+                // Act
+                client.complete(request(LlmCallType.RESPONSE));
+                client.complete(request(LlmCallType.RESPONSE));
+
+                // Assert
+                assertEquals(1, delegate.started.size());
+                assertEquals(1, client.getQueueDepth());
+        }
+
+        @Test
+        @DisplayName("should halve the concurrency limit when the provider throttles")
+        void shouldBackOffOnThrottle() {
+                // Arrange
+                ControlledClient delegate = new ControlledClient();
+                AdmissionControlledLlmClient client = client(delegate, 100000, 8, 10000);
+                CompletableFuture<LlmResponse> call = client.complete(request(LlmCallType.RESPONSE));
+
+                // Act
+                delegate.responses.get(0).completeExceptionally(new LlmException("Too many requests", 429));
+
+                // Assert
+                assertThrows(CompletionException.class, call::join);
+                assertEquals(4, client.getConcurrencyLimit());
+                assertEquals(0, client.getInFlight());
+        }
+
+        @Test
+        @DisplayName("should halve the concurrency limit on a provider timeout but not on other failures")
+        void shouldBackOffOnTimeoutOnly() {
+                // Arrange
+                ControlledClient delegate = new ControlledClient();
+                AdmissionControlledLlmClient client = client(delegate, 100000, 8, 10000);
+                CompletableFuture<LlmResponse> unparseable = client.complete(request(LlmCallType.RESPONSE));
+                CompletableFuture<LlmResponse> timedOut = client.complete(request(LlmCallType.RESPONSE));
+
+                // Act
+                delegate.responses.get(0).completeExceptionally(
+                                new LlmException("OpenAI API call failed", new IllegalStateException("bad JSON")));
+                double afterParseError = client.getConcurrencyLimit();
+                delegate.responses.get(1).completeExceptionally(
+                                new LlmException("OpenAI API call failed", new HttpTimeoutException("timed out")));
+
+                // Assert
+                assertThrows(CompletionException.class, unparseable::join);
+                assertThrows(CompletionException.class, timedOut::join);
+                assertEquals(8, afterParseError);
+                assertEquals(4, client.getConcurrencyLimit());
+        }
+
+        @Test
+        @DisplayName("should time provider calls by call type and outcome")
+        void shouldTimeCallsByTypeAndOutcome() {
+                // Arrange
+                ControlledClient delegate = new ControlledClient();
+                AdmissionControlledLlmClient client = client(delegate, 100000, 8, 10000);
+                client.complete(request(LlmCallType.RESPONSE));
+                client.complete(request(LlmCallType.SECRET_JUDGE));
+
+                // Act
+                delegate.responses.get(0).complete(new LlmResponse("reply", "stop"));
+                delegate.responses.get(1).completeExceptionally(new LlmException("Too many requests", 429));
+
+                // Assert
+                assertEquals(1, meterRegistry.get("llm.call")
+                                .tags("call.type", "RESPONSE", "outcome", "success").timer().count());
+                assertEquals(1, meterRegistry.get("llm.call")
+                                .tags("call.type", "SECRET_JUDGE", "outcome", "throttled").timer().count());
+                assertEquals(1, meterRegistry.get("llm.admission.wait")
+                                .tag("call.type", "RESPONSE").timer().count());
+        }
+}
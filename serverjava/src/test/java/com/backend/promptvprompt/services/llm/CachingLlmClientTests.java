@@ -0,0 +1,200 @@
+package com.backend.promptvprompt.services.llm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.backend.promptvprompt.models.LlmCacheEntry;
+import com.backend.promptvprompt.repos.LlmCacheEntryRepo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingLlmClient Tests")
+class CachingLlmClientTest {
+
+        @Mock
+        private LlmClient delegate;
+
+        @Mock
+        private LlmCacheEntryRepo llmCacheEntryRepo;
+
+        private CachingLlmClient client(int maxEntries, long ttlMs, boolean persistent) {
+                lenient().when(delegate.getModel()).thenReturn("gpt-4.1-nano");
+                return new CachingLlmClient(delegate, llmCacheEntryRepo, true, maxEntries, 1 << 20, ttlMs,
+                                persistent, 1);
+        }
+
+        private LlmRequest request(LlmCallType callType, String transcript) {
+                return LlmRequest.builder()
+                                .callType(callType)
+                                .messages(List.of(new LlmMessage("system", transcript)))
+                                .temperature(1.0)
+                                .maxTokens(5)
+                                .build();
+        }
+
+        @Test
+        @DisplayName("should answer a repeated judge request from the cache")
+        void shouldServeRepeatedRequestFromCache() {
+                // Arrange
+                CachingLlmClient cachingClient = client(100, 60000, false);
+                when(delegate.complete(any(LlmRequest.class)))
+                                .thenReturn(CompletableFuture.completedFuture(new LlmResponse("YES", "stop")));
+
+                // Act
+                String first = cachingClient.complete(request(LlmCallType.SECRET_JUDGE, "transcript")).join()
+                                .getContent();
+                String second = cachingClient.complete(request(LlmCallType.SECRET_JUDGE, "transcript")).join()
+                                .getContent();
+
+                // Assert
+                assertEquals("YES", first);
+                assertEquals("YES", second);
+                verify(delegate, times(1)).complete(any(LlmRequest.class));
+                assertEquals(1, cachingClient.getHits());
+                assertEquals(1, cachingClient.getMisses());
+                assertTrue(cachingClient.getEstimatedBytes() > 0);
+        }
+
+        @Test
+        @DisplayName("should never cache in-game replies")
+        void shouldNotCacheResponses() {
+                // Arrange
+                CachingLlmClient cachingClient = client(100, 60000, false);
+                when(delegate.complete(any(LlmRequest.class)))
+                                .thenReturn(CompletableFuture.completedFuture(new LlmResponse("Hi", "stop")));
+
+                // Act
+                cachingClient.complete(request(LlmCallType.RESPONSE, "hello")).join();
+                cachingClient.complete(request(LlmCallType.RESPONSE, "hello")).join();
+
+                // Assert
+                verify(delegate, times(2)).complete(any(LlmRequest.class));
+                assertEquals(0, cachingClient.getEntryCount());
+        }
+
+        @Test
+        @DisplayName("should share one call between identical requests in flight")
+        void shouldCoalesceInFlightRequests() {
+                // Arrange
+                CachingLlmClient cachingClient = client(100, 60000, false);
+                CompletableFuture<LlmResponse> pending = new CompletableFuture<>();
+                when(delegate.complete(any(LlmRequest.class))).thenReturn(pending);
+
+                // Act
+                CompletableFuture<LlmResponse> first = cachingClient
+                                .complete(request(LlmCallType.DEFENSE_SUMMARY, "defense"));
+                CompletableFuture<LlmResponse> second = cachingClient
+                                .complete(request(LlmCallType.DEFENSE_SUMMARY, "defense"));
+                first.cancel(true);
+                pending.complete(new LlmResponse("Guarded.", "stop"));
+
+                // Assert
+                assertEquals("Guarded.", second.join().getContent());
+                verify(delegate, times(1)).complete(any(LlmRequest.class));
+        }
+
+        @Test
+        @DisplayName("should evict the least recently used entry past the size limit")
+        void shouldEvictLeastRecentlyUsed() {
+                // Arrange
+                CachingLlmClient cachingClient = client(1, 60000, false);
+                when(delegate.complete(any(LlmRequest.class)))
+                                .thenReturn(CompletableFuture.completedFuture(new LlmResponse("NO", "stop")));
+
+                // Act
+                cachingClient.complete(request(LlmCallType.SECRET_JUDGE, "first")).join();
+                cachingClient.complete(request(LlmCallType.SECRET_JUDGE, "second")).join();
+                cachingClient.complete(request(LlmCallType.SECRET_JUDGE, "first")).join();
+
+                // Assert
+                verify(delegate, times(3)).complete(any(LlmRequest.class));
+                assertEquals(1, cachingClient.getEntryCount());
+                assertEquals(2, cachingClient.getEvictions());
+        }
+
+        @Test
+        @DisplayName("should recompute an entry older than the TTL")
+        void shouldExpireEntries() throws InterruptedException {
+                // Arrange
+                CachingLlmClient cachingClient = client(100, 1, false);
+                when(delegate.complete(any(LlmRequest.class)))
+                                .thenReturn(CompletableFuture.completedFuture(new LlmResponse("NO", "stop")));
+
+                // Act
+                cachingClient.complete(request(LlmCallType.SECRET_JUDGE, "transcript")).join();
+                Thread.sleep(5);
+                cachingClient.complete(request(LlmCallType.SECRET_JUDGE, "transcript")).join();
+
+                // Assert
+                verify(delegate, times(2)).complete(any(LlmRequest.class));
+        }
+
+        @Test
+        @DisplayName("should fall back to the persisted entry on a memory miss")
+        void shouldReadPersistedEntries() {
+                // Arrange
+                CachingLlmClient cachingClient = client(100, 60000, true);
+                LlmRequest request = request(LlmCallType.SECRET_JUDGE, "transcript");
+                String key = CachingLlmClient.cacheKey("gpt-4.1-nano", request);
+                when(llmCacheEntryRepo.findById(key)).thenReturn(Optional.of(LlmCacheEntry.builder()
+                                .cacheKey(key)
+                                .callType(LlmCallType.SECRET_JUDGE)
+                                .model("gpt-4.1-nano")
+                                .content("YES")
+                                .createdAt(LocalDateTime.now())
+                                .build()));
+
+                // Act
+                LlmResponse response = cachingClient.complete(request).join();
+
+                // Assert
+                assertEquals("YES", response.getContent());
+                verify(delegate, never()).complete(any(LlmRequest.class));
+                assertEquals(1, cachingClient.getHits());
+        }
+
+        @Test
+        @DisplayName("should read and write the table off the caller's thread")
+        void shouldUseStoreExecutorForPersistence() {
+                // Arrange
+                CachingLlmClient cachingClient = client(100, 60000, true);
+                Thread caller = Thread.currentThread();
+                List<Thread> storeThreads = new CopyOnWriteArrayList<>();
+                when(llmCacheEntryRepo.findById(anyString())).thenAnswer(invocation -> {
+                        storeThreads.add(Thread.currentThread());
+                        return Optional.empty();
+                });
+                when(llmCacheEntryRepo.save(any(LlmCacheEntry.class))).thenAnswer(invocation -> {
+                        storeThreads.add(Thread.currentThread());
+                        return invocation.getArgument(0);
+                });
+                when(delegate.complete(any(LlmRequest.class)))
+                                .thenReturn(CompletableFuture.completedFuture(new LlmResponse("NO", "stop")));
+
+                // Act
+                LlmResponse response = cachingClient.complete(request(LlmCallType.SECRET_JUDGE, "transcript")).join();
+
+                // Assert
+                assertEquals("NO", response.getContent());
+                verify(llmCacheEntryRepo, timeout(1000)).save(any(LlmCacheEntry.class));
+                assertEquals(2, storeThreads.size());
+                for (Thread thread : storeThreads) {
+                        assertNotSame(caller, thread);
+                        assertEquals("llm-cache-store", thread.getName());
+                }
+                assertEquals(1, cachingClient.getMisses());
+                cachingClient.shutdown();
+        }
+}
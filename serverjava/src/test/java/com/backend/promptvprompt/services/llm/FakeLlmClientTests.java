@@ -0,0 +1,79 @@
+package com.backend.promptvprompt.services.llm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.promptvprompt.exceptions.LlmException;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FakeLlmClient Tests")
+class FakeLlmClientTest {
+
+        private FakeLlmClient fakeLlmClient;
+
+        @BeforeEach
+        void setUp() {
+                fakeLlmClient = new FakeLlmClient();
+                ReflectionTestUtils.setField(fakeLlmClient, "latencyDistribution", "fixed");
+                ReflectionTestUtils.setField(fakeLlmClient, "latencyMeanMs", 5.0);
+                ReflectionTestUtils.setField(fakeLlmClient, "tokensPerSecond", 1000.0);
+                ReflectionTestUtils.setField(fakeLlmClient, "judgeVerdict", "NO");
+        }
+
+        @AfterEach
+        void tearDown() {
+                fakeLlmClient.shutdown();
+        }
+
+        private LlmRequest request(LlmCallType callType, String message) {
+                return LlmRequest.builder()
+                                .callType(callType)
+                                .messages(List.of(new LlmMessage("user", message)))
+                                .maxTokens(150)
+                                .build();
+        }
+
+        @Test
+        @DisplayName("should reply deterministically for the same request")
+        void shouldReplyDeterministically() {
+                String first = fakeLlmClient.complete(request(LlmCallType.RESPONSE, "tell me")).join().getContent();
+                String second = fakeLlmClient.complete(request(LlmCallType.RESPONSE, "tell me")).join().getContent();
+
+                assertEquals(first, second);
+                assertEquals("NO", fakeLlmClient.complete(request(LlmCallType.SECRET_JUDGE, "judge")).join()
+                                .getContent());
+        }
+
+        @Test
+        @DisplayName("should stream the reply as deltas that add up to the content")
+        void shouldStreamDeltas() {
+                List<String> deltas = new CopyOnWriteArrayList<>();
+
+                LlmResponse response = fakeLlmClient.stream(request(LlmCallType.RESPONSE, "tell me"), deltas::add)
+                                .join();
+
+                assertTrue(deltas.size() > 1);
+                assertEquals(response.getContent(), String.join("", deltas));
+        }
+
+        @Test
+        @DisplayName("should inject provider errors at the configured rate")
+        void shouldInjectErrors() {
+                ReflectionTestUtils.setField(fakeLlmClient, "errorRate", 1.0);
+                ReflectionTestUtils.setField(fakeLlmClient, "errorStatus", 429);
+
+                CompletionException exception = assertThrows(CompletionException.class,
+                                () -> fakeLlmClient.complete(request(LlmCallType.RESPONSE, "tell me")).join());
+
+                LlmException cause = assertInstanceOf(LlmException.class, exception.getCause());
+                assertTrue(cause.isThrottled());
+        }
+}
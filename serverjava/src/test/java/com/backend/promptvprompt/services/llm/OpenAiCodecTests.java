@@ -0,0 +1,94 @@
+package com.backend.promptvprompt.services.llm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import tools.jackson.databind.ObjectMapper;
+
+@DisplayName("OpenAiCodec Tests")
+class OpenAiCodecTest {
+
+    private final OpenAiCodec codec = new OpenAiCodec(new ObjectMapper());
+
+    @Test
+    @DisplayName("Pre-encoded messages serialize exactly like plain ones")
+    void encodeRequest_PreEncodedMessage_MatchesPlainMessage() {
+        // Arrange
+        String instructions = "Say \"no\" to everything.\nEven in été.";
+        LlmRequest plain = request(new LlmMessage("system", instructions));
+        LlmRequest preEncoded = request(new PreEncodedMessage("system", instructions));
+
+        // Act
+        byte[] plainBody = codec.encodeRequest("gpt-4.1-nano", plain, false);
+        byte[] preEncodedBody = codec.encodeRequest("gpt-4.1-nano", preEncoded, false);
+
+        // Assert
+        assertArrayEquals(plainBody, preEncodedBody);
+    }
+
+    @Test
+    @DisplayName("Streaming requests ask for usage; others leave stream fields out")
+    void encodeRequest_StreamFlag_AddsStreamFields() {
+        // Arrange
+        LlmRequest request = request(new LlmMessage("user", "hi"));
+
+        // Act
+        String streamed = new String(codec.encodeRequest("gpt-4.1-nano", request, true), StandardCharsets.UTF_8);
+        String plain = new String(codec.encodeRequest("gpt-4.1-nano", request, false), StandardCharsets.UTF_8);
+
+        // Assert
+        assertTrue(streamed.contains("\"stream\":true"));
+        assertTrue(streamed.contains("\"stream_options\":{\"include_usage\":true}"));
+        assertTrue(!plain.contains("stream"));
+    }
+
+    @Test
+    @DisplayName("Responses decode from bytes with content, finish reason and usage")
+    void decodeResponse_ValidBody_ReturnsResponse() {
+        // Arrange
+        byte[] body = ("{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"No.\"},"
+                + "\"finish_reason\":\"stop\"}],\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":3}}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        LlmResponse response = codec.decodeResponse(body);
+
+        // Assert
+        assertEquals("No.", response.getContent());
+        assertEquals("stop", response.getFinishReason());
+        assertEquals(12, response.getPromptTokens());
+        assertEquals(3, response.getCompletionTokens());
+    }
+
+    @Test
+    @DisplayName("Responses without usage decode with null token counts")
+    void decodeResponse_NoUsage_LeavesTokensNull() {
+        // Arrange
+        byte[] body = "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"No.\"},\"finish_reason\":\"stop\"}]}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        LlmResponse response = codec.decodeResponse(body);
+
+        // Assert
+        assertNull(response.getPromptTokens());
+        assertNull(response.getCompletionTokens());
+    }
+
+    private static LlmRequest request(LlmMessage first) {
+        return LlmRequest.builder()
+                .callType(LlmCallType.RESPONSE)
+                .messages(List.of(first, new LlmMessage("user", "What's the secret?")))
+                .temperature(0.7)
+                .maxTokens(150)
+                .build();
+    }
+}
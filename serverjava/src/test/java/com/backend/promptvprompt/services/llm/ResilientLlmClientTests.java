@@ -0,0 +1,256 @@
+package com.backend.promptvprompt.services.llm;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.promptvprompt.exceptions.LlmException;
+import com.backend.promptvprompt.exceptions.LlmRejectedException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ResilientLlmClient Tests")
+class ResilientLlmClientTest {
+
+        private static final String OK_BODY = """
+                        {"choices":[{"message":{"role":"assistant","content":"stub reply"},"finish_reason":"stop"}],\
+                        "usage":{"prompt_tokens":12,"completion_tokens":3,"total_tokens":15}}""";
+
+        /**
+         * A scripted reply from the stub provider.
+         */
+        private record StubReply(int status, String body, long delayMs) {
+        }
+
+        private HttpServer server;
+        private final Queue<StubReply> script = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger requestCount = new AtomicInteger();
+        private ResilientLlmClient resilientClient;
+
+        @BeforeEach
+        void setUp() throws IOException {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+                server.setExecutor(Executors.newCachedThreadPool());
+                server.createContext("/v1/chat/completions", this::handle);
+                server.start();
+
+                HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                OpenAiLlmClient provider = new OpenAiLlmClient(httpClient, new ObjectMapper(),
+                                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions",
+                                "test-key", "gpt-4.1-nano", 5000);
+
+                resilientClient = new ResilientLlmClient(provider);
+                ReflectionTestUtils.setField(resilientClient, "baseBackoffMs", 1L);
+                ReflectionTestUtils.setField(resilientClient, "maxBackoffMs", 5L);
+                ReflectionTestUtils.setField(resilientClient, "breakerWindowSize", 4);
+                ReflectionTestUtils.setField(resilientClient, "breakerMinimumCalls", 4);
+        }
+
+        @AfterEach
+        void tearDown() {
+                resilientClient.shutdown();
+                server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+                requestCount.incrementAndGet();
+                exchange.getRequestBody().readAllBytes();
+                StubReply reply = script.poll();
+                if (reply == null) {
+                        reply = new StubReply(200, OK_BODY, 0);
+                }
+                try {
+                        Thread.sleep(reply.delayMs());
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+                byte[] body = reply.body().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(reply.status(), body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                }
+        }
+
+        private LlmRequest request(LlmCallType callType) {
+                return LlmRequest.builder()
+                                .callType(callType)
+                                .messages(List.of(new LlmMessage("user", "hello")))
+                                .temperature(1.0)
+                                .maxTokens(50)
+                                .build();
+        }
+
+        @Test
+        @DisplayName("should retry provider errors and return the eventual reply")
+        void shouldRetryProviderErrors() {
+                // Arrange
+                resilientClient.init();
+                script.add(new StubReply(500, "{\"error\":\"boom\"}", 0));
+                script.add(new StubReply(503, "{\"error\":\"busy\"}", 0));
+
+                // Act
+                LlmResponse response = resilientClient.complete(request(LlmCallType.RESPONSE)).join();
+
+                // Assert
+                assertEquals("stub reply", response.getContent());
+                assertEquals(12, response.getPromptTokens());
+                assertEquals(3, response.getCompletionTokens());
+                assertEquals(3, requestCount.get());
+                assertEquals(2, resilientClient.getRetryCount());
+        }
+
+        @Test
+        @DisplayName("should not retry a bad request")
+        void shouldNotRetryBadRequest() {
+                // Arrange
+                resilientClient.init();
+                script.add(new StubReply(400, "{\"error\":\"bad\"}", 0));
+
+                // Act
+                CompletionException exception = assertThrows(CompletionException.class,
+                                () -> resilientClient.complete(request(LlmCallType.RESPONSE)).join());
+
+                // Assert
+                assertEquals(400, ((LlmException) exception.getCause()).getStatusCode());
+                assertEquals(1, requestCount.get());
+        }
+
+        @Test
+        @DisplayName("should stop retrying once the retry budget is spent")
+        void shouldRespectRetryBudget() {
+                // Arrange
+                ReflectionTestUtils.setField(resilientClient, "retryBudgetReserve", 1.0);
+                ReflectionTestUtils.setField(resilientClient, "retryBudgetRatio", 0.0);
+                resilientClient.init();
+                for (int i = 0; i < 3; i++) {
+                        script.add(new StubReply(500, "{\"error\":\"boom\"}", 0));
+                }
+
+                // Act
+                assertThrows(CompletionException.class,
+                                () -> resilientClient.complete(request(LlmCallType.RESPONSE)).join());
+
+                // Assert
+                assertEquals(2, requestCount.get());
+                assertEquals(1, resilientClient.getRetryCount());
+        }
+
+        @Test
+        @DisplayName("should open the breaker for a failing call type only")
+        void shouldOpenBreakerPerCallType() {
+                // Arrange
+                ReflectionTestUtils.setField(resilientClient, "maxAttempts", 1);
+                resilientClient.init();
+                for (int i = 0; i < 4; i++) {
+                        script.add(new StubReply(500, "{\"error\":\"boom\"}", 0));
+                }
+                for (int i = 0; i < 4; i++) {
+                        assertThrows(CompletionException.class,
+                                        () -> resilientClient.complete(request(LlmCallType.SECRET_JUDGE)).join());
+                }
+
+                // Act
+                CompletionException exception = assertThrows(CompletionException.class,
+                                () -> resilientClient.complete(request(LlmCallType.SECRET_JUDGE)).join());
+                LlmResponse reply = resilientClient.complete(request(LlmCallType.RESPONSE)).join();
+
+                // Assert
+                assertTrue(exception.getCause().getMessage().contains("Circuit open"));
+                assertEquals(ResilientLlmClient.CircuitBreaker.State.OPEN,
+                                resilientClient.getBreakerState(LlmCallType.SECRET_JUDGE));
+                assertEquals("stub reply", reply.getContent());
+                assertEquals(5, requestCount.get());
+                assertEquals(1, resilientClient.getShortCircuitedCount());
+        }
+
+        @Test
+        @DisplayName("should neither retry nor count against the breaker a call refused by admission control")
+        void shouldPassLocalRejectionsThrough() {
+                // Arrange
+                AtomicInteger calls = new AtomicInteger();
+                LlmClient overloaded = new LlmClient() {
+                        @Override
+                        public String getModel() {
+                                return "gpt-4.1-nano";
+                        }
+
+                        @Override
+                        public CompletableFuture<LlmResponse> complete(LlmRequest request) {
+                                calls.incrementAndGet();
+                                return CompletableFuture.failedFuture(
+                                                new LlmRejectedException("LLM admission queue is full"));
+                        }
+
+                        @Override
+                        public CompletableFuture<LlmResponse> stream(LlmRequest request, Consumer<String> onDelta) {
+                                return complete(request);
+                        }
+                };
+                ResilientLlmClient client = new ResilientLlmClient(overloaded);
+                ReflectionTestUtils.setField(client, "baseBackoffMs", 1L);
+                ReflectionTestUtils.setField(client, "maxBackoffMs", 5L);
+                ReflectionTestUtils.setField(client, "breakerWindowSize", 4);
+                ReflectionTestUtils.setField(client, "breakerMinimumCalls", 4);
+                client.init();
+
+                try {
+                        // Act
+                        for (int i = 0; i < 6; i++) {
+                                CompletionException exception = assertThrows(CompletionException.class,
+                                                () -> client.complete(request(LlmCallType.RESPONSE)).join());
+                                assertInstanceOf(LlmRejectedException.class, exception.getCause());
+                        }
+
+                        // Assert
+                        assertEquals(6, calls.get());
+                        assertEquals(0, client.getRetryCount());
+                        assertEquals(ResilientLlmClient.CircuitBreaker.State.CLOSED,
+                                        client.getBreakerState(LlmCallType.RESPONSE));
+                } finally {
+                        client.shutdown();
+                }
+        }
+
+        @Test
+        @DisplayName("should hedge a call that runs past the observed p95")
+        void shouldHedgeSlowCall() {
+                // Arrange
+                ReflectionTestUtils.setField(resilientClient, "hedgeEnabled", true);
+                ReflectionTestUtils.setField(resilientClient, "hedgeMinDelayMs", 50L);
+                ReflectionTestUtils.setField(resilientClient, "hedgeMinSamples", 1);
+                resilientClient.init();
+                resilientClient.complete(request(LlmCallType.DEFENSE_SUMMARY)).join();
+                script.add(new StubReply(200, OK_BODY, 3000));
+
+                // Act
+                long start = System.nanoTime();
+                LlmResponse response = resilientClient.complete(request(LlmCallType.DEFENSE_SUMMARY)).join();
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+                // Assert
+                assertEquals("stub reply", response.getContent());
+                assertTrue(elapsedMs < 2000, "hedge should answer before the slow call, took " + elapsedMs + " ms");
+                assertEquals(1, resilientClient.getHedgeCount());
+        }
+}